@@ -0,0 +1,165 @@
+package com.excilys.benchmarks;
+
+import com.excilys.persistence.dao.ComputerDAO;
+import com.excilys.service.service.IComputerService;
+import org.hibernate.SessionFactory;
+import org.hibernate.search.batchindexing.impl.SimpleIndexingProgressMonitor;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Application context running on an embedded h2 database, seeded with a number of computers.
+ * <p>
+ * the database, the search index and the spring context are created once per fork and per number of rows.
+ *
+ * @author simon
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+
+    /**
+     * word matched by the searches of the benchmarks.
+     */
+    public static final String SEARCH = "macbook";
+
+    private static final String[] NAMES = {"MacBook", "ThinkPad", "Amiga", "Commodore", "Cray", "Vaio", "Pavilion",
+            "Inspiron", "Latitude", "Aspire"};
+
+    private static final int COMPANIES = 50;
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final Logger LOGGER = LoggerFactory.getLogger(BenchmarkDatabase.class);
+
+    /**
+     * number of computers in the database.
+     */
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ClassPathXmlApplicationContext context;
+
+    private Path indexDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.indexDirectory = Files.createTempDirectory("cdb-benchmarks");
+
+        System.setProperty("search.index.base", this.indexDirectory.toString());
+
+        this.context = new ClassPathXmlApplicationContext("benchmarkContext.xml");
+
+        // the startup indexing runs on the empty database, wait for it before seeding
+        IComputerService computerService = this.getBean(IComputerService.class);
+        while ("PENDING".equals(computerService.getIndexStatus().getState())
+                || "INDEXING".equals(computerService.getIndexStatus().getState())) {
+            Thread.sleep(100);
+        }
+
+        long start = System.currentTimeMillis();
+        this.seed();
+        this.LOGGER.info("{} computers inserted in {} ms", this.rows, System.currentTimeMillis() - start);
+
+        // the rows were inserted with jdbc, behind the back of hibernate
+        EntityManagerFactory emf = this.getBean(EntityManagerFactory.class);
+        emf.getCache().evictAll();
+        emf.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+
+        start = System.currentTimeMillis();
+        this.getBean(ComputerDAO.class).buildIndex(100, 4, 1000, new SimpleIndexingProgressMonitor());
+        this.LOGGER.info("{} computers indexed in {} ms", this.rows, System.currentTimeMillis() - start);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.context.close();
+
+        try (Stream<Path> files = Files.walk(this.indexDirectory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return this.context.getBean(type);
+    }
+
+    /**
+     * run an action in a read only transaction, as the services do.
+     *
+     * @param action action to run
+     * @param <T>    type of the result
+     * @return result of the action
+     */
+    public <T> T inTransaction(TransactionCallback<T> action) {
+        TransactionTemplate tmpl = new TransactionTemplate(this.getBean(PlatformTransactionManager.class));
+        tmpl.setReadOnly(true);
+        return tmpl.execute(action);
+    }
+
+    private void seed() throws SQLException {
+        Random random = new Random(42);
+
+        try (Connection connection = this.getBean(DataSource.class).getConnection()) {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement ps = connection.prepareStatement("insert into company (id, name) values (?, ?)")) {
+                for (int i = 1; i <= COMPANIES; i++) {
+                    ps.setLong(1, i);
+                    ps.setString(2, "Company " + i);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "insert into computer (id, name, introduced, discontinued, company_id, company_name)"
+                            + " values (?, ?, ?, ?, ?, ?)")) {
+                for (int i = 1; i <= this.rows; i++) {
+                    LocalDate introduced = LocalDate.of(1970, 1, 1).plusDays(random.nextInt(15000));
+
+                    ps.setLong(1, i);
+                    ps.setString(2, NAMES[random.nextInt(NAMES.length)] + " " + i);
+                    ps.setDate(3, random.nextInt(10) == 0 ? null : Date.valueOf(introduced));
+                    ps.setDate(4, random.nextInt(3) == 0 ? Date.valueOf(introduced.plusDays(random.nextInt(3000)))
+                            : null);
+                    Long company = random.nextInt(10) == 0 ? null : (long) (1 + random.nextInt(COMPANIES));
+                    ps.setObject(5, company);
+                    ps.setString(6, company == null ? null : "Company " + company);
+                    ps.addBatch();
+
+                    if (i % BATCH_SIZE == 0) {
+                        ps.executeBatch();
+                    }
+                }
+                ps.executeBatch();
+            }
+
+            connection.commit();
+        }
+    }
+}
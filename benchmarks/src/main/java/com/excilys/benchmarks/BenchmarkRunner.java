@@ -0,0 +1,33 @@
+package com.excilys.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the benchmarks, writing the results as json so that releases can be compared.
+ * <p>
+ * accepts the usual jmh options, for example {@code -p rows=10000} to run only on the small database or
+ * {@code -rff results.json} to choose the output file (default: jmh-result.json).
+ *
+ * @author simon
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+
+        if (!cmd.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,76 @@
+package com.excilys.benchmarks;
+
+import com.excilys.core.model.Computer;
+import com.excilys.core.model.PageParameters;
+import com.excilys.persistence.dao.ComputerDAO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the different branches of {@link ComputerDAO#findAll(PageParameters)} and of the counts.
+ *
+ * @author simon
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComputerDAOBenchmark {
+
+    private static final int SIZE = 10;
+
+    private ComputerDAO computerDAO;
+
+    private PageParameters firstPage;
+
+    private PageParameters lastPage;
+
+    private PageParameters search;
+
+    @Setup
+    public void setUp(BenchmarkDatabase db) {
+        this.computerDAO = db.getBean(ComputerDAO.class);
+        this.firstPage = new PageParameters.Builder().size(SIZE).pageNumber(0).build();
+        // deepest page, see PagingBenchmark for the plans at each depth
+        this.lastPage = new PageParameters.Builder().size(SIZE).pageNumber(db.rows / SIZE - 1).build();
+        this.search = new PageParameters.Builder().size(SIZE).pageNumber(0).search(BenchmarkDatabase.SEARCH).build();
+    }
+
+    @Benchmark
+    public List<Computer> findAllNormal(BenchmarkDatabase db) {
+        return db.inTransaction(status -> this.computerDAO.findAll(this.firstPage));
+    }
+
+    @Benchmark
+    public List<Computer> findAllDeepPage(BenchmarkDatabase db) {
+        return db.inTransaction(status -> this.computerDAO.findAll(this.lastPage));
+    }
+
+    @Benchmark
+    public List<Computer> findAllLucene(BenchmarkDatabase db) {
+        return db.inTransaction(status -> this.computerDAO.findAll(this.search));
+    }
+
+    @Benchmark
+    public long count(BenchmarkDatabase db) {
+        return db.inTransaction(status -> this.computerDAO.count());
+    }
+
+    @Benchmark
+    public long countSearch(BenchmarkDatabase db) {
+        return db.inTransaction(status -> this.computerDAO.count(this.search));
+    }
+}
@@ -0,0 +1,65 @@
+package com.excilys.benchmarks;
+
+import com.excilys.core.model.Computer;
+import com.excilys.core.model.Page;
+import com.excilys.core.model.PageParameters;
+import com.excilys.service.service.IComputerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link IComputerService#getComputersPage(PageParameters)}: query, count and cursors.
+ *
+ * @author simon
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComputerServiceBenchmark {
+
+    private static final int SIZE = 10;
+
+    private IComputerService computerService;
+
+    private PageParameters firstPage;
+
+    private PageParameters middlePage;
+
+    private PageParameters search;
+
+    @Setup
+    public void setUp(BenchmarkDatabase db) {
+        this.computerService = db.getBean(IComputerService.class);
+        this.firstPage = new PageParameters.Builder().size(SIZE).pageNumber(0).build();
+        this.middlePage = new PageParameters.Builder().size(SIZE).pageNumber(db.rows / SIZE / 2).build();
+        this.search = new PageParameters.Builder().size(SIZE).pageNumber(0).search(BenchmarkDatabase.SEARCH).build();
+    }
+
+    @Benchmark
+    public Page<Computer> firstPage() {
+        return this.computerService.getComputersPage(this.firstPage);
+    }
+
+    @Benchmark
+    public Page<Computer> middlePage() {
+        return this.computerService.getComputersPage(this.middlePage);
+    }
+
+    @Benchmark
+    public Page<Computer> search() {
+        return this.computerService.getComputersPage(this.search);
+    }
+}
@@ -0,0 +1,88 @@
+package com.excilys.benchmarks;
+
+import com.excilys.binding.mapper.DTOMapper;
+import com.excilys.binding.mapper.impl.ComputerMapper;
+import com.excilys.core.dto.ComputerDTO;
+import com.excilys.core.model.Company;
+import com.excilys.core.model.Computer;
+import com.excilys.core.model.Page;
+import com.excilys.core.model.PageParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the list conversions of {@link ComputerMapper} and {@link DTOMapper}, without database.
+ *
+ * @author simon
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    /**
+     * number of computers converted.
+     */
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ComputerMapper mapper;
+
+    private List<Computer> computers;
+
+    private List<ComputerDTO> dtos;
+
+    private Page<Computer> page;
+
+    @Setup
+    public void setUp() {
+        this.mapper = new ComputerMapper();
+        this.computers = new ArrayList<>(this.size);
+
+        Company company = new Company(1L, "Apple Inc.");
+        LocalDate date = LocalDate.of(1990, 1, 1);
+
+        for (int i = 0; i < this.size; i++) {
+            this.computers.add(new Computer((long) i, "MacBook " + i, date.plusDays(i), i % 2 == 0 ? null : date,
+                    i % 10 == 0 ? null : company));
+        }
+
+        this.dtos = this.mapper.toDTO(this.computers);
+        this.page = new Page.Builder<Computer>().list(this.computers)
+                .params(new PageParameters.Builder().size(this.size).build())
+                .totalCount((long) this.size)
+                .build();
+    }
+
+    @Benchmark
+    public List<ComputerDTO> toDTO() {
+        return this.mapper.toDTO(this.computers);
+    }
+
+    @Benchmark
+    public List<Computer> fromDTO() {
+        return this.mapper.fromDTO(this.dtos);
+    }
+
+    @Benchmark
+    public Page<ComputerDTO> mapPage() {
+        return this.mapper.map(this.page);
+    }
+}
@@ -0,0 +1,97 @@
+package com.excilys.benchmarks;
+
+import com.excilys.core.model.Computer;
+import com.excilys.core.model.PageParameters;
+import com.excilys.core.model.PageParameters.Order;
+import com.excilys.persistence.dao.ComputerDAO;
+import com.excilys.persistence.dao.PagingPlanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the two plans of a page query at increasing depths, to find the offset where the deferred join gets
+ * cheaper than the offset, and of the plan chosen by the {@link PagingPlanner}.
+ * <p>
+ * the depth is a share of the number of rows, so that each database is measured from its first to its last page.
+ * The crossover measured by the planner is logged at the end of each trial.
+ *
+ * @author simon
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PagingBenchmark {
+
+    private static final int SIZE = 10;
+
+    private final Logger LOGGER = LoggerFactory.getLogger(PagingBenchmark.class);
+
+    /**
+     * offset of the page, in percent of the number of rows.
+     */
+    @Param({"0", "1", "10", "50", "100"})
+    public int depth;
+
+    @Param({"NAME", "COMPANY_NAME"})
+    public Order order;
+
+    private ComputerDAO computerDAO;
+
+    private PagingPlanner pagingPlanner;
+
+    private int rows;
+
+    private PageParameters page;
+
+    @Setup
+    public void setUp(BenchmarkDatabase db) {
+        this.computerDAO = db.getBean(ComputerDAO.class);
+        this.pagingPlanner = db.getBean(PagingPlanner.class);
+        this.rows = db.rows;
+
+        long pages = this.rows / SIZE;
+        this.page = new PageParameters.Builder().size(SIZE)
+                .pageNumber((int) Math.min(pages * this.depth / 100, pages - 1))
+                .order(this.order)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.LOGGER.info("crossover measured for {} rows ordered by {}: {}", this.rows, this.order,
+                this.pagingPlanner.getCrossover(this.order));
+    }
+
+    @Benchmark
+    public List<Computer> offset(BenchmarkDatabase db) {
+        return db.inTransaction(status -> this.computerDAO.findAllOffset(this.page));
+    }
+
+    @Benchmark
+    public List<Computer> deferredJoin(BenchmarkDatabase db) {
+        return db.inTransaction(status -> this.computerDAO.findAllDeferredJoin(this.page));
+    }
+
+    @Benchmark
+    public List<Computer> planned(BenchmarkDatabase db) {
+        return db.inTransaction(status -> this.computerDAO.findAll(this.page));
+    }
+}
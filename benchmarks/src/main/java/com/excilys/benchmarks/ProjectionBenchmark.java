@@ -0,0 +1,80 @@
+package com.excilys.benchmarks;
+
+import com.excilys.binding.mapper.impl.ComputerMapper;
+import com.excilys.core.dto.ComputerDTO;
+import com.excilys.core.model.PageParameters;
+import com.excilys.persistence.dao.ComputerDAO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of a page of the list views read as entities then mapped, against the same page read directly as dtos
+ * by {@link ComputerDAO#findAllDTO(PageParameters)}.
+ * <p>
+ * run with {@code -prof gc}: gc.alloc.rate.norm gives the bytes allocated per page, the entities costing their
+ * hydration, the snapshots kept for the dirty checking and the mapping.
+ *
+ * @author simon
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    /**
+     * number of computers per page.
+     */
+    @Param({"10", "100"})
+    public int size;
+
+    private ComputerDAO computerDAO;
+
+    private ComputerMapper computerMapper;
+
+    private PageParameters firstPage;
+
+    private PageParameters lastPage;
+
+    @Setup
+    public void setUp(BenchmarkDatabase db) {
+        this.computerDAO = db.getBean(ComputerDAO.class);
+        this.computerMapper = db.getBean(ComputerMapper.class);
+        this.firstPage = new PageParameters.Builder().size(this.size).pageNumber(0).build();
+        this.lastPage = new PageParameters.Builder().size(this.size).pageNumber(db.rows / this.size - 1).build();
+    }
+
+    @Benchmark
+    public List<ComputerDTO> entitiesFirstPage(BenchmarkDatabase db) {
+        return db.inTransaction(status -> this.computerMapper.toDTO(this.computerDAO.findAll(this.firstPage)));
+    }
+
+    @Benchmark
+    public List<ComputerDTO> dtosFirstPage(BenchmarkDatabase db) {
+        return db.inTransaction(status -> this.computerDAO.findAllDTO(this.firstPage));
+    }
+
+    @Benchmark
+    public List<ComputerDTO> entitiesLastPage(BenchmarkDatabase db) {
+        return db.inTransaction(status -> this.computerMapper.toDTO(this.computerDAO.findAll(this.lastPage)));
+    }
+
+    @Benchmark
+    public List<ComputerDTO> dtosLastPage(BenchmarkDatabase db) {
+        return db.inTransaction(status -> this.computerDAO.findAllDTO(this.lastPage));
+    }
+}
@@ -0,0 +1,19 @@
+package com.excilys.binding.mapper;
+
+import com.excilys.core.model.Company;
+
+/**
+ * lookup of the companies by id, used by the mappers to resolve the company of a dto without a query.
+ *
+ * @author simon
+ */
+public interface ICompanyDirectory {
+
+    /**
+     * get a company by its id.
+     *
+     * @param id id of the company
+     * @return a copy of the company, null if it doesn't exist
+     */
+    Company getCompany(Long id);
+}
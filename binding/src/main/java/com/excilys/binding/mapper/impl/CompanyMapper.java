@@ -30,6 +30,9 @@ public class CompanyMapper implements ICompanyMapper {
                 .list(this.toDTO(page.getList()))
                 .params(page.getParams())
                 .totalCount(page.getTotalCount())
+                .nextCursor(page.getNextCursor())
+                .previousCursor(page.getPreviousCursor())
+                .countStrategy(page.getCountStrategy())
                 .build();
     }
 }
@@ -1,11 +1,13 @@
 package com.excilys.binding.mapper.impl;
 
+import com.excilys.binding.mapper.ICompanyDirectory;
 import com.excilys.binding.mapper.IComputerMapper;
 import com.excilys.core.dto.ComputerDTO;
 import com.excilys.core.model.Company;
 import com.excilys.core.model.Computer;
 import com.excilys.core.model.Computer.ComputerBuilder;
 import com.excilys.core.model.Page;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
@@ -19,6 +21,12 @@ import java.time.LocalDate;
 @Component
 public class ComputerMapper implements IComputerMapper {
 
+    /**
+     * resolves the company of the dto, absent when there is no database (console).
+     */
+    @Autowired(required = false)
+    private ICompanyDirectory companyDirectory;
+
     @Override
     public ComputerDTO toDTO(Computer computer) {
         return new ComputerDTO(computer);
@@ -44,7 +52,9 @@ public class ComputerMapper implements IComputerMapper {
         }
 
         if ((computer.getCompanyId() != null) && !"".equals(computer.getCompanyId())) {
-            builder.company(new Company(Long.parseLong(computer.getCompanyId()), computer.getCompanyName()));
+            Long companyId = Long.parseLong(computer.getCompanyId());
+            Company company = this.companyDirectory == null ? null : this.companyDirectory.getCompany(companyId);
+            builder.company(company != null ? company : new Company(companyId, computer.getCompanyName()));
         }
 
         return builder.build();
@@ -56,6 +66,9 @@ public class ComputerMapper implements IComputerMapper {
                 .list(this.toDTO(page.getList()))
                 .params(page.getParams())
                 .totalCount(page.getTotalCount())
+                .nextCursor(page.getNextCursor())
+                .previousCursor(page.getPreviousCursor())
+                .countStrategy(page.getCountStrategy())
                 .build();
     }
 
@@ -2,7 +2,9 @@ package com.excilys.binding.mapper.impl;
 
 import com.excilys.binding.mapper.IPageParametersMapper;
 import com.excilys.core.dto.PageParametersDTO;
+import com.excilys.core.model.PageCursor;
 import com.excilys.core.model.PageParameters;
+import com.excilys.core.model.PageParameters.CountStrategy;
 import com.excilys.core.model.PageParameters.Direction;
 import com.excilys.core.model.PageParameters.Order;
 import org.springframework.stereotype.Component;
@@ -37,6 +39,14 @@ public class PageParametersMapper implements IPageParametersMapper {
             builder.order(Order.valueOf(dto.getOrder().toUpperCase()));
         }
 
+        if (dto.getCount() != null && !dto.getCount().isEmpty()) {
+            builder.countStrategy(CountStrategy.valueOf(dto.getCount().toUpperCase()));
+        }
+
+        if (dto.getCursor() != null && !dto.getCursor().isEmpty()) {
+            builder.cursor(PageCursor.decode(dto.getCursor()));
+        }
+
         return builder.build();
     }
 
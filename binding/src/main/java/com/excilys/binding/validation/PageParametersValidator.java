@@ -1,6 +1,7 @@
 package com.excilys.binding.validation;
 
 import com.excilys.core.dto.PageParametersDTO;
+import com.excilys.core.model.PageCursor;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
 import org.springframework.validation.Validator;
@@ -25,6 +26,11 @@ public class PageParametersValidator implements Validator {
      */
     private static Set<String> directions = new HashSet<>(Arrays.asList("asc", "desc"));
 
+    /**
+     * valid count strategies strings
+     */
+    private static Set<String> counts = new HashSet<>(Arrays.asList("exact", "cached"));
+
     @Override
     public boolean supports(Class<?> clazz) {
         return PageParametersDTO.class.equals(clazz);
@@ -56,5 +62,21 @@ public class PageParametersValidator implements Validator {
                 err.reject("dir", "errors.invalid.dir");
             }
         }
+
+        // count strategy (optional)
+        if ((params.getCount() != null) && !params.getCount().isEmpty()) {
+            if (!counts.contains(params.getCount())) {
+                err.reject("count", "errors.invalid.count");
+            }
+        }
+
+        // keyset cursor (optional)
+        if ((params.getCursor() != null) && !params.getCursor().isEmpty()) {
+            try {
+                PageCursor.decode(params.getCursor());
+            } catch (IllegalArgumentException e) {
+                err.reject("cursor", "errors.invalid.cursor");
+            }
+        }
     }
 }
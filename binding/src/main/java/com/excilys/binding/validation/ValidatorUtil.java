@@ -88,6 +88,11 @@ public class ValidatorUtil {
         if (params.getDirection() == null) {
             throw new ValidatorException("OrderDirection cannot be null");
         }
+
+        // keyset cursor (optional), only valid for the order it was created with
+        if ((params.getCursor() != null) && (params.getCursor().getOrder() != params.getOrder())) {
+            throw new ValidatorException("PageCursor doesn't match the order : " + params.getCursor());
+        }
     }
 
     /**
@@ -0,0 +1,60 @@
+package com.excilys.binding.mapper;
+
+import com.excilys.binding.mapper.impl.PageParametersMapper;
+import com.excilys.core.dto.PageParametersDTO;
+import com.excilys.core.model.PageCursor;
+import com.excilys.core.model.PageParameters;
+import com.excilys.core.model.PageParameters.Order;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PageParametersMapperTest {
+
+    private PageParametersMapper mapper = new PageParametersMapper();
+
+    @Test
+    public void testCursorRoundTrip() {
+        PageCursor cursor = new PageCursor(Order.NAME, "MacBook: Pro", 42L, false);
+        PageParameters params = new PageParameters.Builder().size(10).pageNumber(3).cursor(cursor).build();
+
+        PageParametersDTO dto = this.mapper.toDTO(params);
+        PageParameters result = this.mapper.fromDTO(dto);
+
+        assertEquals(cursor, result.getCursor());
+        assertEquals(params, result);
+    }
+
+    @Test
+    public void testCursorNullKey() {
+        PageCursor cursor = new PageCursor(Order.INTRODUCED, null, 7L, true);
+
+        assertEquals(cursor, PageCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    public void testSearchIsTrimmed() {
+        PageParametersDTO dto = new PageParametersDTO();
+        dto.setSearch(" mac ");
+
+        assertEquals("mac", this.mapper.fromDTO(dto).getSearch());
+    }
+
+    @Test
+    public void testNoCursor() {
+        PageParameters result = this.mapper.fromDTO(new PageParametersDTO());
+
+        assertNull(result.getCursor());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCursor() {
+        PageCursor.decode("not a cursor");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCursorDate() {
+        PageCursor.decode(new PageCursor(Order.DISCONTINUED, "yesterday", 7L, false).encode());
+    }
+}
@@ -0,0 +1,332 @@
+package com.excilys.console;
+
+import com.excilys.core.dto.ComputerDTO;
+import com.excilys.core.dto.ImportErrorDTO;
+import com.excilys.core.dto.ImportReportDTO;
+import com.excilys.core.model.PageParameters;
+import com.excilys.service.service.ICompanyRestService;
+import com.excilys.service.service.IComputerRestService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Non interactive mode of the CLI, for the scripts.
+ * <p>
+ * the csv imports are streamed: the rows are sent by chunks to the batch endpoint of the rest api, with a bounded
+ * number of chunks in flight, so that neither the file nor the pending requests are held in memory. The data goes to
+ * the standard output, the reports and errors to the error output.
+ *
+ * @author simon
+ */
+@Component
+public class Batch {
+
+    /**
+     * exit status: everything was done.
+     */
+    public static final int SUCCESS = 0;
+
+    /**
+     * exit status: the action failed, or some rows were rejected.
+     */
+    public static final int FAILURE = 1;
+
+    /**
+     * exit status: wrong arguments.
+     */
+    public static final int USAGE = 2;
+
+    /**
+     * number of rejected rows detailed in the error output.
+     */
+    private static final int MAX_ERRORS = 100;
+
+    private static final String[] COLUMNS = {"name", "introduced", "discontinued", "companyId"};
+
+    private static final String USAGE_TEXT = "usage: console [--import <file.csv|->] [--export [--format csv|ndjson]]"
+            + " [--count] [--delete-company <id>] [--search <text>] [--chunk <rows>] [--concurrency <requests>]";
+
+    private final PrintStream out = System.out;
+
+    private final PrintStream err = System.err;
+
+    @Autowired
+    private IComputerRestService computerRestService;
+
+    @Autowired
+    private ICompanyRestService companyRestService;
+
+    @Value("${batch.chunk.size:500}")
+    private int chunkSize;
+
+    @Value("${batch.concurrency:4}")
+    private int concurrency;
+
+    /**
+     * run the action of the arguments.
+     *
+     * @param args arguments of the command line
+     * @return exit status
+     */
+    public int run(String[] args) {
+        String action = null;
+        String value = null;
+        String search = "";
+        String format = "csv";
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--import":
+                    case "--delete-company":
+                        action = action == null ? args[i] : "";
+                        value = args[++i];
+                        break;
+                    case "--export":
+                    case "--count":
+                        action = action == null ? args[i] : "";
+                        break;
+                    case "--search":
+                        search = args[++i];
+                        break;
+                    case "--format":
+                        format = args[++i];
+                        break;
+                    case "--chunk":
+                        this.chunkSize = Integer.parseInt(args[++i]);
+                        break;
+                    case "--concurrency":
+                        this.concurrency = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        action = "";
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            action = "";
+        }
+
+        if (action == null || action.isEmpty() || this.chunkSize <= 0 || this.concurrency <= 0) {
+            this.err.println(USAGE_TEXT);
+            return USAGE;
+        }
+
+        PageParameters params = new PageParameters.Builder().search(search).build();
+
+        try {
+            switch (action) {
+                case "--import":
+                    return this.importComputers(value);
+                case "--export":
+                    return this.exportComputers(params, format);
+                case "--count":
+                    this.out.println(this.computerRestService.countComputers(params));
+                    return SUCCESS;
+                default:
+                    this.companyRestService.deleteCompany(Long.parseLong(value));
+                    this.err.println("company " + value + " deleted");
+                    return SUCCESS;
+            }
+        } catch (NumberFormatException e) {
+            this.err.println(USAGE_TEXT);
+            return USAGE;
+        } catch (IOException | ProcessingException | WebApplicationException e) {
+            this.err.println("failed: " + e.getMessage());
+            return FAILURE;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.err.println("interrupted");
+            return FAILURE;
+        }
+    }
+
+    /**
+     * import a csv file with a header naming the columns, such as the csv export.
+     *
+     * @param file path of the file, "-" for the standard input
+     * @return exit status
+     */
+    private int importComputers(String file) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Totals totals = new Totals();
+        Semaphore inFlight = new Semaphore(this.concurrency);
+
+        try (BufferedReader in = "-".equals(file)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            CsvReader csv = new CsvReader(in);
+            List<String> header = csv.next();
+
+            if (header == null) {
+                this.err.println("empty file");
+                return FAILURE;
+            }
+
+            int[] columns = new int[COLUMNS.length];
+
+            for (int i = 0; i < COLUMNS.length; i++) {
+                columns[i] = header.indexOf(COLUMNS[i]);
+            }
+
+            if (columns[0] < 0) {
+                this.err.println("no name column in the header");
+                return FAILURE;
+            }
+
+            List<ComputerDTO> chunk = new ArrayList<>(this.chunkSize);
+            // rows of the file of the computers of the chunk, the rejected rows being skipped
+            long[] rows = new long[this.chunkSize];
+            long row = 0;
+            List<String> record;
+
+            while ((record = csv.next()) != null) {
+                // blank line
+                if (record.size() == 1 && record.get(0).isEmpty()) {
+                    continue;
+                }
+
+                row++;
+
+                if (record.size() != header.size()) {
+                    totals.reject(row, "expected " + header.size() + " fields, found " + record.size());
+                    continue;
+                }
+
+                rows[chunk.size()] = row;
+                chunk.add(new ComputerDTO.Builder()
+                        .name(field(record, columns[0]))
+                        .introduced(field(record, columns[1]))
+                        .discontinued(field(record, columns[2]))
+                        .companyId(field(record, columns[3]))
+                        .build());
+
+                if (chunk.size() == this.chunkSize) {
+                    this.send(chunk, rows, inFlight, totals);
+                    chunk = new ArrayList<>(this.chunkSize);
+                    rows = new long[this.chunkSize];
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                this.send(chunk, rows, inFlight, totals);
+            }
+        } finally {
+            // wait for the chunks still in flight
+            inFlight.acquire(this.concurrency);
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        this.err.println(String.format(Locale.ROOT, "imported %d, rejected %d, failed %d in %.1f s (%.0f rows/s)",
+                totals.imported, totals.rejected, totals.failed, seconds,
+                (totals.imported + totals.rejected + totals.failed) / Math.max(seconds, 0.001)));
+
+        return totals.rejected == 0 && totals.failed == 0 ? SUCCESS : FAILURE;
+    }
+
+    /**
+     * send a chunk once less than the maximum number of chunks are in flight.
+     *
+     * @param chunk    computers of the chunk
+     * @param rows     rows of the computers of the chunk in the file
+     * @param inFlight permits of the chunks in flight
+     * @param totals   totals of the import
+     */
+    private void send(List<ComputerDTO> chunk, long[] rows, Semaphore inFlight, Totals totals)
+            throws InterruptedException {
+        inFlight.acquire();
+
+        try {
+            this.computerRestService.importComputersAsync(chunk).whenComplete((report, error) -> {
+                try {
+                    if (error != null || report == null) {
+                        totals.fail(rows[0], chunk.size(), error == null ? "no report" : error.toString());
+                    } else {
+                        totals.add(report, rows);
+                    }
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * export the computers matching the search.
+     *
+     * @param params search of the export
+     * @param format "csv" or "ndjson"
+     * @return exit status
+     */
+    private int exportComputers(PageParameters params, String format) throws IOException {
+        long start = System.nanoTime();
+        long bytes = this.computerRestService.exportComputers(params, format, this.out);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        this.err.println(String.format(Locale.ROOT, "exported %d bytes in %.1f s (%.0f kB/s)", bytes, seconds,
+                bytes / 1024 / Math.max(seconds, 0.001)));
+
+        return SUCCESS;
+    }
+
+    private static String field(List<String> record, int column) {
+        return column < 0 ? "" : record.get(column);
+    }
+
+    /**
+     * totals of an import, updated by the threads receiving the reports.
+     */
+    private class Totals {
+
+        private long imported;
+
+        private long rejected;
+
+        private long failed;
+
+        private int errors;
+
+        synchronized void add(ImportReportDTO report, long[] rows) {
+            this.imported += report.getImported();
+            this.rejected += report.getRejected();
+
+            // the rows of the report are numbered from 1 in the chunk
+            for (ImportErrorDTO error : report.getErrors()) {
+                this.print(rows[(int) error.getRow() - 1], error.getMessage());
+            }
+        }
+
+        synchronized void reject(long row, String message) {
+            this.rejected++;
+            this.print(row, message);
+        }
+
+        synchronized void fail(long firstRow, int size, String message) {
+            this.failed += size;
+            this.print(firstRow, "chunk of " + size + " rows failed: " + message);
+        }
+
+        private void print(long row, String message) {
+            if (this.errors++ < MAX_ERRORS) {
+                Batch.this.err.println("row " + row + ": " + message);
+            }
+        }
+    }
+}
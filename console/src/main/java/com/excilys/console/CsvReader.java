@@ -0,0 +1,76 @@
+package com.excilys.console;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads csv records one at a time (rfc 4180: fields separated by commas, quoted with double quotes when they contain a
+ * comma, a quote or a new line), so that a file is never loaded at once.
+ *
+ * @author simon
+ */
+class CsvReader {
+
+    private final BufferedReader in;
+
+    /**
+     * csv reader constructor.
+     *
+     * @param in input, read up to the end of each record
+     */
+    CsvReader(BufferedReader in) {
+        this.in = in;
+    }
+
+    /**
+     * read the next record.
+     *
+     * @return fields of the record, null at the end of the input
+     * @throws IOException if the input can't be read
+     */
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean read = false;
+        int c;
+
+        while ((c = this.in.read()) >= 0) {
+            read = true;
+
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                } else {
+                    this.in.mark(1);
+
+                    // a doubled quote is a quote of the field, a single one closes the field
+                    if (this.in.read() == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        this.in.reset();
+                    }
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+
+        if (!read) {
+            return null;
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -11,19 +11,28 @@ public class Main {
     @Autowired
     private Menu menu;
 
+    @Autowired
+    private Batch batch;
+
     /**
-     * entry method for the CLI app.
+     * entry method for the CLI app: the interactive menu without arguments, the batch mode otherwise.
      *
      * @param args arguments
      */
     public static void main(final String[] args) {
 
-        ConfigurableApplicationContext context = new ClassPathXmlApplicationContext("classpath:applicationContext.xml");
+        ConfigurableApplicationContext context = new ClassPathXmlApplicationContext("classpath:consoleContext.xml");
 
         context.registerShutdownHook();
 
         Main p = context.getBean(Main.class);
 
+        if (args.length > 0) {
+            int status = p.batch.run(args);
+            context.close();
+            System.exit(status);
+        }
+
         p.start();
 
     }
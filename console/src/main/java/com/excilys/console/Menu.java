@@ -23,6 +23,11 @@ import java.util.Scanner;
 public class Menu {
     private static final int MAX_PER_PAGES = 20;
 
+    /**
+     * pages kept while browsing a list: the previous, the current and the next ones, and one more.
+     */
+    private static final int CACHED_PAGES = 4;
+
     private static ArrayList<String> options;
 
     private static DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
@@ -53,6 +58,7 @@ public class Menu {
         Menu.options.add("Update Computer");
         Menu.options.add("Delete Computer");
         Menu.options.add("Delete Company");
+        Menu.options.add("Search Computers");
         Menu.options.add("quit");
     }
 
@@ -108,61 +114,21 @@ public class Menu {
         LocalDate introduced, discontinued;
         String name;
         Computer computer;
-        PageParameters page;
 
         boolean stop = false;
 
         switch (choice) {
             // display the list of computers
             case 1:
-
-                page = new PageParameters.Builder().size(Menu.MAX_PER_PAGES).pageNumber(0).build();
-
-                // loop for pagination
-                while (this.listComputers(page)) {
-                    System.out.println("quit (0), next(1), previous(2)");
-
-                    Long a;
-
-                    while ((a = this.promptForLong(":")) < 0) {
-                        System.out.println("invalid choice");
-                    }
-
-                    if (a == 0) {
-                        break;
-                    } else if (a == 1) {
-                        page.incPage();
-                    } else if (a == 2) {
-                        page.decPage();
-                    }
-
-                }
+                this.browse(new PageCache<Computer>(this.computerRestService::getListAsync, Menu.CACHED_PAGES),
+                        new PageParameters.Builder().size(Menu.MAX_PER_PAGES).pageNumber(0).build());
 
                 break;
 
             // display the list of companies
             case 2:
-                page = new PageParameters.Builder().size(Menu.MAX_PER_PAGES).pageNumber(0).build();
-
-                // loop for pagination
-                while (this.listCompanies(page)) {
-                    System.out.println("quit (0), next(1), previous(2)");
-
-                    Long a;
-
-                    while ((a = this.promptForLong(":")) < 0) {
-                        System.out.println("invalid choice");
-                    }
-
-                    if (a == 0) {
-                        break;
-                    } else if (a == 1) {
-                        page.incPage();
-                    } else if (a == 2) {
-                        page.decPage();
-                    }
-
-                }
+                this.browse(new PageCache<Company>(this.companyRestService::getListAsync, Menu.CACHED_PAGES),
+                        new PageParameters.Builder().size(Menu.MAX_PER_PAGES).pageNumber(0).build());
 
                 break;
 
@@ -273,6 +239,18 @@ public class Menu {
                 this.companyRestService.deleteCompany(companyId);
 
                 break;
+
+            // search computers by name or company name
+            case 8:
+                while ((name = this.promptForString("search : ")).isEmpty()) {
+                    System.out.println("invalid search");
+                }
+
+                this.browse(new PageCache<Computer>(this.computerRestService::getListAsync, Menu.CACHED_PAGES),
+                        new PageParameters.Builder().size(Menu.MAX_PER_PAGES).pageNumber(0).search(name).build());
+
+                break;
+
             // quit
             default:
                 stop = true;
@@ -352,31 +330,49 @@ public class Menu {
     }
 
     /**
-     * display the list of computers.
+     * display a list page by page, until the user quits or the end of the list is reached.
      *
-     * @param page page parameters
-     * @return false if offset reached the end of the data
+     * @param pages cache of the pages of the list
+     * @param page  parameters of the first page
+     * @param <T>   type of the elements of the list
      */
-    private boolean listComputers(PageParameters page) {
-        List<Computer> computers = computerRestService.getList(page);
+    private <T> void browse(PageCache<T> pages, PageParameters page) {
 
-        computers.forEach(System.out::println);
+        // loop for pagination
+        while (this.listPage(pages, page)) {
+            System.out.println("quit (0), next(1), previous(2)");
 
-        return (computers.size() == page.getSize());
+            Long a;
+
+            while ((a = this.promptForLong(":")) < 0) {
+                System.out.println("invalid choice");
+            }
+
+            if (a == 0) {
+                break;
+            } else if (a == 1) {
+                page.incPage();
+            } else if (a == 2) {
+                page.decPage();
+            }
+
+        }
     }
 
     /**
-     * display the list of companies.
+     * display a page of a list.
      *
-     * @param page page parameters
+     * @param pages cache of the pages of the list
+     * @param page  page parameters
+     * @param <T>   type of the elements of the list
      * @return false if offset reached the end of the data
      */
-    private boolean listCompanies(PageParameters page) {
-        List<Company> companies = this.companyRestService.getList(page);
+    private <T> boolean listPage(PageCache<T> pages, PageParameters page) {
+        List<T> elements = pages.get(page);
 
-        companies.forEach(System.out::println);
+        elements.forEach(System.out::println);
 
-        return (companies.size() == page.getSize());
+        return (elements.size() == page.getSize());
     }
 
     /**
@@ -0,0 +1,100 @@
+package com.excilys.console;
+
+import com.excilys.core.model.PageParameters;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Small cache of the pages browsed in the console, keyed by their parameters.
+ * <p>
+ * when a page is shown, the next one is requested in the background while the user reads it, and the previous one is
+ * kept: moving of one page is then served without waiting for the server. Only the last pages are kept, and a page
+ * whose request failed is removed so that it is requested again. Used by the thread of the menu only.
+ *
+ * @param <T> type of the elements of the pages
+ * @author simon
+ */
+class PageCache<T> {
+
+    private final Function<PageParameters, CompletableFuture<List<T>>> loader;
+
+    private final Map<PageParameters, CompletableFuture<List<T>>> pages;
+
+    /**
+     * page cache constructor.
+     *
+     * @param loader   sends the request of a page
+     * @param capacity number of pages kept
+     */
+    PageCache(Function<PageParameters, CompletableFuture<List<T>>> loader, int capacity) {
+        this.loader = loader;
+        this.pages = new LinkedHashMap<PageParameters, CompletableFuture<List<T>>>(capacity + 1, 1f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PageParameters, CompletableFuture<List<T>>> eldest) {
+                return this.size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * get a page, and prefetch its neighbours.
+     *
+     * @param page parameters of the page
+     * @return elements of the page
+     */
+    List<T> get(PageParameters page) {
+        PageParameters key = copy(page, page.getPageNumber());
+        List<T> elements;
+
+        try {
+            elements = this.load(key).join();
+        } catch (RuntimeException e) {
+            this.pages.remove(key);
+            throw e;
+        }
+
+        // a full page can be followed by another one
+        if (elements.size() == page.getSize()) {
+            this.load(copy(page, page.getPageNumber() + 1));
+        }
+
+        if (page.getPageNumber() > 0) {
+            this.load(copy(page, page.getPageNumber() - 1));
+        }
+
+        return elements;
+    }
+
+    private CompletableFuture<List<T>> load(PageParameters key) {
+        CompletableFuture<List<T>> elements = this.pages.get(key);
+
+        if (elements == null || elements.isCompletedExceptionally()) {
+            elements = this.loader.apply(key);
+            this.pages.put(key, elements);
+        }
+
+        return elements;
+    }
+
+    /**
+     * copy parameters of a page, the page parameters being mutable.
+     *
+     * @param page       parameters to copy
+     * @param pageNumber number of the page
+     * @return new parameters
+     */
+    private static PageParameters copy(PageParameters page, long pageNumber) {
+        return new PageParameters.Builder()
+                .size(Math.toIntExact(page.getSize()))
+                .pageNumber(Math.toIntExact(pageNumber))
+                .search(page.getSearch())
+                .order(page.getOrder())
+                .direction(page.getDirection())
+                .countStrategy(page.getCountStrategy())
+                .build();
+    }
+}
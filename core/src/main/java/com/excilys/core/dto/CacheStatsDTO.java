@@ -0,0 +1,71 @@
+package com.excilys.core.dto;
+
+/**
+ * DTO for the statistics of a cache.
+ *
+ * @author simon
+ */
+public class CacheStatsDTO {
+
+    private int size;
+
+    private long hits;
+
+    private long misses;
+
+    public CacheStatsDTO() {
+
+    }
+
+    /**
+     * CacheStatsDTO constructor.
+     *
+     * @param size   number of entries in the cache
+     * @param hits   number of lookups served by the cache
+     * @param misses number of lookups that had to load the entry
+     */
+    public CacheStatsDTO(int size, long hits, long misses) {
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getHits() {
+        return this.hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return this.misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    /**
+     * get the share of the lookups served by the cache.
+     *
+     * @return hit rate, between 0 and 1 (0 when there was no lookup)
+     */
+    public double getHitRate() {
+        long lookups = this.hits + this.misses;
+        return lookups == 0 ? 0 : (double) this.hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatsDTO [size=" + this.size + ", hits=" + this.hits + ", misses=" + this.misses + "]";
+    }
+}
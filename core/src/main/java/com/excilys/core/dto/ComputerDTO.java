@@ -5,6 +5,7 @@ import com.excilys.core.model.Computer;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
 
 
 /**
@@ -43,6 +44,33 @@ public class ComputerDTO {
         this.companyName = companyName;
     }
 
+    /**
+     * ComputerDTO constructor from the columns of a computer, used by the projection queries. Same output as
+     * {@link #ComputerDTO(Computer)}.
+     *
+     * @param id           id of the computer
+     * @param name         name of the computer
+     * @param introduced   introduced date, can be null
+     * @param discontinued discontinued date, can be null
+     * @param companyId    id of the company, null without company
+     * @param companyName  name of the company, can be null
+     */
+    public ComputerDTO(final Long id, final String name, final LocalDate introduced, final LocalDate discontinued,
+                       final Long companyId, final String companyName) {
+        this.id = id.toString();
+        this.name = name;
+        this.introduced = introduced == null ? "" : introduced.toString();
+        this.discontinued = discontinued == null ? "" : discontinued.toString();
+
+        if (companyId != null) {
+            this.companyId = companyId.toString();
+            this.companyName = companyName == null ? "" : companyName;
+        } else {
+            this.companyId = null;
+            this.companyName = "";
+        }
+    }
+
     /**
      * ComputerDTO constructor using a computer as a template.
      *
@@ -0,0 +1,49 @@
+package com.excilys.core.dto;
+
+/**
+ * DTO for a row rejected by an import.
+ *
+ * @author simon
+ */
+public class ImportErrorDTO {
+
+    private long row;
+
+    private String message;
+
+    public ImportErrorDTO() {
+
+    }
+
+    /**
+     * ImportErrorDTO constructor.
+     *
+     * @param row     position of the row in the input, starting at 1
+     * @param message reason of the rejection
+     */
+    public ImportErrorDTO(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    public long getRow() {
+        return this.row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getMessage() {
+        return this.message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportErrorDTO [row=" + this.row + ", message=" + this.message + "]";
+    }
+}
@@ -0,0 +1,50 @@
+package com.excilys.core.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for the result of an import.
+ * <p>
+ * only the first errors are detailed, so that a wrong file doesn't produce a report as big as the file.
+ *
+ * @author simon
+ */
+public class ImportReportDTO {
+
+    private long imported;
+
+    private long rejected;
+
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+
+    public long getImported() {
+        return this.imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return this.rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<ImportErrorDTO> getErrors() {
+        return this.errors;
+    }
+
+    public void setErrors(List<ImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReportDTO [imported=" + this.imported + ", rejected=" + this.rejected + ", errors="
+                + this.errors.size() + "]";
+    }
+}
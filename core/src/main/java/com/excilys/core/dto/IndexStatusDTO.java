@@ -0,0 +1,61 @@
+package com.excilys.core.dto;
+
+/**
+ * DTO for the state of the search index.
+ *
+ * @author simon
+ */
+public class IndexStatusDTO {
+
+    private String state;
+
+    private long indexed;
+
+    private long total;
+
+    public IndexStatusDTO() {
+
+    }
+
+    /**
+     * IndexStatusDTO constructor.
+     *
+     * @param state   state of the index
+     * @param indexed number of computers indexed so far
+     * @param total   number of computers to index
+     */
+    public IndexStatusDTO(String state, long indexed, long total) {
+        this.state = state;
+        this.indexed = indexed;
+        this.total = total;
+    }
+
+    public String getState() {
+        return this.state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public long getIndexed() {
+        return this.indexed;
+    }
+
+    public void setIndexed(long indexed) {
+        this.indexed = indexed;
+    }
+
+    public long getTotal() {
+        return this.total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexStatusDTO [state=" + this.state + ", indexed=" + this.indexed + ", total=" + this.total + "]";
+    }
+}
@@ -14,6 +14,10 @@ public class PageParametersDTO {
 
     private String direction = "asc";
 
+    private String cursor = "";
+
+    private String count = "";
+
     public PageParametersDTO() {
 
     }
@@ -24,6 +28,8 @@ public class PageParametersDTO {
         this.search = params.getSearch();
         this.order = params.getOrder().toString();
         this.direction = params.getDirection().toString();
+        this.cursor = params.getCursor() == null ? "" : params.getCursor().encode();
+        this.count = params.getCountStrategy() == null ? "" : params.getCountStrategy().toString().toLowerCase();
     }
 
     public int getSize() {
@@ -66,9 +72,25 @@ public class PageParametersDTO {
         this.direction = direction;
     }
 
+    public String getCursor() {
+        return this.cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public String getCount() {
+        return this.count;
+    }
+
+    public void setCount(String count) {
+        this.count = count;
+    }
+
     @Override
     public String toString() {
-        return "PageParametersDTO [size=" + this.size + ", pageNumber=" + this.pageNumber + ", search=" + this.search + ", order=" + this.order + ", direction=" + this.direction + "]";
+        return "PageParametersDTO [size=" + this.size + ", pageNumber=" + this.pageNumber + ", search=" + this.search + ", order=" + this.order + ", direction=" + this.direction + ", cursor=" + this.cursor + ", count=" + this.count + "]";
     }
 
     @Override
@@ -78,6 +100,8 @@ public class PageParametersDTO {
         result = 31 * result + (search != null ? search.hashCode() : 0);
         result = 31 * result + (order != null ? order.hashCode() : 0);
         result = 31 * result + (direction != null ? direction.hashCode() : 0);
+        result = 31 * result + (cursor != null ? cursor.hashCode() : 0);
+        result = 31 * result + (count != null ? count.hashCode() : 0);
         return result;
     }
 
@@ -92,7 +116,9 @@ public class PageParametersDTO {
         if (pageNumber != that.pageNumber) return false;
         if (search != null ? !search.equals(that.search) : that.search != null) return false;
         if (order != null ? !order.equals(that.order) : that.order != null) return false;
-        return direction != null ? direction.equals(that.direction) : that.direction == null;
+        if (direction != null ? !direction.equals(that.direction) : that.direction != null) return false;
+        if (count != null ? !count.equals(that.count) : that.count != null) return false;
+        return cursor != null ? cursor.equals(that.cursor) : that.cursor == null;
 
     }
 
@@ -0,0 +1,173 @@
+package com.excilys.core.dto;
+
+import java.util.Arrays;
+
+/**
+ * DTO for the statistics of a connection pool.
+ *
+ * @author simon
+ */
+public class PoolStatsDTO {
+
+    private String pool;
+
+    private int active;
+
+    private int idle;
+
+    private int pending;
+
+    private int total;
+
+    private long acquired;
+
+    private long timeouts;
+
+    private double meanAcquireMicros;
+
+    private long maxAcquireMicros;
+
+    private long[] acquireBounds;
+
+    private long[] acquireHistogram;
+
+    private double meanUsageMillis;
+
+    public PoolStatsDTO() {
+
+    }
+
+    /**
+     * PoolStatsDTO constructor.
+     *
+     * @param pool    name of the pool
+     * @param active  connections in use
+     * @param idle    connections waiting in the pool
+     * @param pending threads waiting for a connection
+     * @param total   connections opened by the pool
+     */
+    public PoolStatsDTO(String pool, int active, int idle, int pending, int total) {
+        this.pool = pool;
+        this.active = active;
+        this.idle = idle;
+        this.pending = pending;
+        this.total = total;
+    }
+
+    public String getPool() {
+        return this.pool;
+    }
+
+    public void setPool(String pool) {
+        this.pool = pool;
+    }
+
+    public int getActive() {
+        return this.active;
+    }
+
+    public void setActive(int active) {
+        this.active = active;
+    }
+
+    public int getIdle() {
+        return this.idle;
+    }
+
+    public void setIdle(int idle) {
+        this.idle = idle;
+    }
+
+    public int getPending() {
+        return this.pending;
+    }
+
+    public void setPending(int pending) {
+        this.pending = pending;
+    }
+
+    public int getTotal() {
+        return this.total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public long getAcquired() {
+        return this.acquired;
+    }
+
+    public void setAcquired(long acquired) {
+        this.acquired = acquired;
+    }
+
+    public long getTimeouts() {
+        return this.timeouts;
+    }
+
+    public void setTimeouts(long timeouts) {
+        this.timeouts = timeouts;
+    }
+
+    public double getMeanAcquireMicros() {
+        return this.meanAcquireMicros;
+    }
+
+    public void setMeanAcquireMicros(double meanAcquireMicros) {
+        this.meanAcquireMicros = meanAcquireMicros;
+    }
+
+    public long getMaxAcquireMicros() {
+        return this.maxAcquireMicros;
+    }
+
+    public void setMaxAcquireMicros(long maxAcquireMicros) {
+        this.maxAcquireMicros = maxAcquireMicros;
+    }
+
+    /**
+     * get the upper bounds of the buckets of {@link #getAcquireHistogram()}, the last bucket has no bound.
+     *
+     * @return bounds in microseconds
+     */
+    public long[] getAcquireBounds() {
+        return this.acquireBounds;
+    }
+
+    public void setAcquireBounds(long[] acquireBounds) {
+        this.acquireBounds = acquireBounds;
+    }
+
+    /**
+     * get the number of connections acquired in each bucket of duration.
+     *
+     * @return one count per bound, plus one for the durations above the last bound
+     */
+    public long[] getAcquireHistogram() {
+        return this.acquireHistogram;
+    }
+
+    public void setAcquireHistogram(long[] acquireHistogram) {
+        this.acquireHistogram = acquireHistogram;
+    }
+
+    public double getMeanUsageMillis() {
+        return this.meanUsageMillis;
+    }
+
+    public void setMeanUsageMillis(double meanUsageMillis) {
+        this.meanUsageMillis = meanUsageMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStatsDTO [pool=" + this.pool + ", active=" + this.active + ", idle=" + this.idle
+                + ", pending=" + this.pending + ", total=" + this.total + ", acquired=" + this.acquired
+                + ", timeouts=" + this.timeouts + ", meanAcquireMicros=" + this.meanAcquireMicros
+                + ", maxAcquireMicros=" + this.maxAcquireMicros
+                + ", acquireBounds=" + Arrays.toString(this.acquireBounds)
+                + ", acquireHistogram=" + Arrays.toString(this.acquireHistogram)
+                + ", meanUsageMillis=" + this.meanUsageMillis + "]";
+    }
+}
@@ -0,0 +1,49 @@
+package com.excilys.core.dto;
+
+/**
+ * DTO for an authentication token.
+ *
+ * @author simon
+ */
+public class TokenDTO {
+
+    private String token;
+
+    private long expires;
+
+    public TokenDTO() {
+
+    }
+
+    /**
+     * TokenDTO constructor.
+     *
+     * @param token   signed token, to be sent in a "Bearer" authorization header
+     * @param expires expiration date of the token, in milliseconds since the epoch
+     */
+    public TokenDTO(String token, long expires) {
+        this.token = token;
+        this.expires = expires;
+    }
+
+    public String getToken() {
+        return this.token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public long getExpires() {
+        return this.expires;
+    }
+
+    public void setExpires(long expires) {
+        this.expires = expires;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenDTO [expires=" + this.expires + "]";
+    }
+}
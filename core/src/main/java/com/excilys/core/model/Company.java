@@ -1,11 +1,17 @@
 package com.excilys.core.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.search.annotations.Field;
+import org.hibernate.search.annotations.Store;
 
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import java.time.LocalDateTime;
 
 /**
  * Company Class.
@@ -13,6 +19,8 @@ import javax.persistence.Table;
  * @author simon
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "company")
 public class Company {
 
@@ -20,9 +28,16 @@ public class Company {
     @GeneratedValue
     private Long id;
 
-    @Field
+    @Field(store = Store.YES)
     private String name;
 
+    /**
+     * last modification, maintained by the database. Used to catch up the search index at startup.
+     */
+    @Column(name = "updated", insertable = false, updatable = false,
+            columnDefinition = "timestamp not null default current_timestamp on update current_timestamp")
+    private LocalDateTime updated;
+
     /**
      * company default constructor.
      */
@@ -58,6 +73,10 @@ public class Company {
         this.name = name;
     }
 
+    public LocalDateTime getUpdated() {
+        return this.updated;
+    }
+
     @Override
     public String toString() {
         return "Company{" +
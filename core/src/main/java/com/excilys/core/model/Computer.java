@@ -1,39 +1,74 @@
 package com.excilys.core.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.search.annotations.Analyze;
 import org.hibernate.search.annotations.Field;
 import org.hibernate.search.annotations.Indexed;
 import org.hibernate.search.annotations.IndexedEmbedded;
 import org.hibernate.search.annotations.SortableField;
+import org.hibernate.search.annotations.Store;
 
 import javax.persistence.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
 @Indexed
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "computer")
 public class Computer {
 
+    /**
+     * ids are taken by blocks of 50 from the shared hibernate_sequence, so that the imports don't read the sequence
+     * for each computer.
+     */
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "computer_id")
+    @GenericGenerator(name = "computer_id", strategy = "enhanced-sequence", parameters = {
+            @Parameter(name = "sequence_name", value = "hibernate_sequence"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")})
     private Long id;
 
-    @Field
+    @Field(store = Store.YES)
     @SortableField
     private String name;
 
-    @Field
+    @Field(store = Store.YES)
     @SortableField
     private LocalDate introduced;
 
-    @Field
+    @Field(store = Store.YES)
     @SortableField
     private LocalDate discontinued;
 
-    @IndexedEmbedded
+    // the fields are stored so that the search can be answered from the index only
+    @IndexedEmbedded(includeEmbeddedObjectId = true)
     @ManyToOne
     @JoinColumn(name = "company_id")
     private Company company;
 
+    /**
+     * copy of the name of the company, so that sorting by company name reads the index (company_name, id) instead of
+     * joining every computer to its company. Set from the company before each write, and updated in bulk when the
+     * company is renamed.
+     */
+    @Field(analyze = Analyze.NO)
+    @SortableField
+    @Column(name = "company_name")
+    private String companyName;
+
+    /**
+     * last modification, maintained by the database. Used to catch up the search index at startup.
+     */
+    @Column(name = "updated", insertable = false, updatable = false,
+            columnDefinition = "timestamp not null default current_timestamp on update current_timestamp")
+    private LocalDateTime updated;
+
     /**
      * default constructor for a computer.
      */
@@ -102,6 +137,20 @@ public class Computer {
         this.company = company;
     }
 
+    public String getCompanyName() {
+        return this.companyName;
+    }
+
+    public LocalDateTime getUpdated() {
+        return this.updated;
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void copyCompanyName() {
+        this.companyName = this.company == null ? null : this.company.getName();
+    }
+
     /**
      * Builder pattern for a computer.
      */
@@ -15,6 +15,12 @@ public class Page<T> {
 
     private PageParameters params;
 
+    private PageCursor nextCursor;
+
+    private PageCursor previousCursor;
+
+    private PageParameters.CountStrategy countStrategy = PageParameters.CountStrategy.EXACT;
+
     /**
      * returns the number of pages necessary for the pagination.
      *
@@ -48,6 +54,30 @@ public class Page<T> {
         this.params = params;
     }
 
+    public PageCursor getNextCursor() {
+        return this.nextCursor;
+    }
+
+    public void setNextCursor(PageCursor nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public PageCursor getPreviousCursor() {
+        return this.previousCursor;
+    }
+
+    public void setPreviousCursor(PageCursor previousCursor) {
+        this.previousCursor = previousCursor;
+    }
+
+    public PageParameters.CountStrategy getCountStrategy() {
+        return this.countStrategy;
+    }
+
+    public void setCountStrategy(PageParameters.CountStrategy countStrategy) {
+        this.countStrategy = countStrategy;
+    }
+
     public static class Builder<T> {
         Page<T> page;
 
@@ -70,6 +100,21 @@ public class Page<T> {
             return this;
         }
 
+        public Builder<T> nextCursor(PageCursor cursor) {
+            this.page.nextCursor = cursor;
+            return this;
+        }
+
+        public Builder<T> previousCursor(PageCursor cursor) {
+            this.page.previousCursor = cursor;
+            return this;
+        }
+
+        public Builder<T> countStrategy(PageParameters.CountStrategy countStrategy) {
+            this.page.countStrategy = countStrategy;
+            return this;
+        }
+
         public Page<T> build() {
             return this.page;
         }
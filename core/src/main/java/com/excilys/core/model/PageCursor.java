@@ -0,0 +1,201 @@
+package com.excilys.core.model;
+
+import com.excilys.core.model.PageParameters.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of a page boundary, used for keyset (seek) pagination.
+ * <p>
+ * A cursor holds the sort key and the id of the last (or first) row of a page. The next page is fetched with a
+ * {@code WHERE (key, id) > (lastKey, lastId)} condition instead of an {@code OFFSET}, so the cost of a page does not
+ * depend on its depth.
+ *
+ * @author simon
+ */
+public class PageCursor {
+
+    private static final char SEPARATOR = ':';
+
+    private static final char FORWARD = 'a';
+
+    private static final char BACKWARD = 'b';
+
+    private static final char NULL_KEY = '~';
+
+    private static final char KEY = '=';
+
+    private final Order order;
+
+    private final String key;
+
+    private final Long id;
+
+    private final boolean backward;
+
+    /**
+     * cursor constructor.
+     *
+     * @param order    order the cursor was created for
+     * @param key      value of the sort column (null if the column is null)
+     * @param id       id of the row
+     * @param backward true to fetch the rows before this position, false to fetch the rows after
+     */
+    public PageCursor(Order order, String key, Long id, boolean backward) {
+        this.order = order;
+        this.key = key;
+        this.id = id;
+        this.backward = backward;
+    }
+
+    /**
+     * create a cursor pointing at a computer.
+     *
+     * @param computer computer at the boundary of the page
+     * @param order    order of the page
+     * @param backward true to fetch the rows before this computer
+     * @return cursor
+     */
+    public static PageCursor of(Computer computer, Order order, boolean backward) {
+        String key;
+
+        switch (order) {
+            case INTRODUCED:
+                key = computer.getIntroduced() == null ? null : computer.getIntroduced().toString();
+                break;
+            case DISCONTINUED:
+                key = computer.getDiscontinued() == null ? null : computer.getDiscontinued().toString();
+                break;
+            case COMPANY_NAME:
+                key = computer.getCompanyName();
+                break;
+            case NAME:
+            default:
+                key = computer.getName();
+                break;
+        }
+
+        return new PageCursor(order, key, computer.getId(), backward);
+    }
+
+    /**
+     * encode the cursor as an opaque url-safe string.
+     *
+     * @return encoded cursor
+     */
+    public String encode() {
+        String raw = this.order.name() + SEPARATOR + (this.backward ? BACKWARD : FORWARD) + SEPARATOR + this.id
+                + SEPARATOR + (this.key == null ? String.valueOf(NULL_KEY) : KEY + this.key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * decode a cursor created by {@link #encode()}.
+     *
+     * @param encoded encoded cursor
+     * @return cursor
+     * @throws IllegalArgumentException if the string is not a valid cursor
+     */
+    public static PageCursor decode(String encoded) {
+        String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+
+        // the key is last, it can contain the separator
+        String[] parts = raw.split(String.valueOf(SEPARATOR), 4);
+
+        if (parts.length != 4 || parts[1].length() != 1 || parts[3].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor : " + encoded);
+        }
+
+        Order order = Order.valueOf(parts[0]);
+
+        boolean backward;
+
+        switch (parts[1].charAt(0)) {
+            case FORWARD:
+                backward = false;
+                break;
+            case BACKWARD:
+                backward = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid cursor direction : " + encoded);
+        }
+
+        Long id = Long.parseLong(parts[2]);
+
+        String key;
+
+        switch (parts[3].charAt(0)) {
+            case NULL_KEY:
+                key = null;
+                break;
+            case KEY:
+                key = parts[3].substring(1);
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid cursor key : " + encoded);
+        }
+
+        if ((key != null) && ((order == Order.INTRODUCED) || (order == Order.DISCONTINUED))) {
+            try {
+                LocalDate.parse(key);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor date : " + encoded, e);
+            }
+        }
+
+        return new PageCursor(order, key, id, backward);
+    }
+
+    public Order getOrder() {
+        return this.order;
+    }
+
+    public String getKey() {
+        return this.key;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public boolean isBackward() {
+        return this.backward;
+    }
+
+    @Override
+    public String toString() {
+        return "PageCursor{" +
+                "order=" + order +
+                ", key='" + key + '\'' +
+                ", id=" + id +
+                ", backward=" + backward +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        PageCursor that = (PageCursor) o;
+
+        if (backward != that.backward) return false;
+        if (order != that.order) return false;
+        if (key != null ? !key.equals(that.key) : that.key != null) return false;
+        return id != null ? id.equals(that.id) : that.id == null;
+
+    }
+
+    @Override
+    public int hashCode() {
+        int result = order != null ? order.hashCode() : 0;
+        result = 31 * result + (key != null ? key.hashCode() : 0);
+        result = 31 * result + (id != null ? id.hashCode() : 0);
+        result = 31 * result + (backward ? 1 : 0);
+        return result;
+    }
+}
@@ -15,6 +15,17 @@ public class PageParameters {
         ASC, DESC;
     }
 
+    /**
+     * how the total number of results is computed.
+     * <ul>
+     * <li>EXACT: always count.</li>
+     * <li>CACHED: served from a cache when possible.</li>
+     * </ul>
+     */
+    public enum CountStrategy {
+        EXACT, CACHED;
+    }
+
     private long size;
 
     private long pageNumber;
@@ -25,6 +36,10 @@ public class PageParameters {
 
     private Direction direction;
 
+    private PageCursor cursor;
+
+    private CountStrategy countStrategy = CountStrategy.CACHED;
+
     /**
      * default constructor.
      */
@@ -41,22 +56,38 @@ public class PageParameters {
      *
      * @param size       size of a page.
      * @param pageNumber current page number.
-     * @param search     string search for the query.
+     * @param search     string search for the query, trimmed.
      * @param order      enum corresponding to the column name for the order by.
      * @param direction  direction of the order by (asc, desc).
      */
     public PageParameters(long size, long pageNumber, String search, Order order, Direction direction) {
         this.size = size;
         this.pageNumber = pageNumber;
-        this.search = search;
+        this.search = normalize(search);
         this.order = order;
         this.direction = direction;
     }
 
+    /**
+     * PageParameters constructor with a keyset cursor.
+     *
+     * @param size       size of a page.
+     * @param pageNumber current page number.
+     * @param search     string search for the query.
+     * @param order      enum corresponding to the column name for the order by.
+     * @param direction  direction of the order by (asc, desc).
+     * @param cursor     boundary of the previous page, null to use the page number.
+     */
+    public PageParameters(long size, long pageNumber, String search, Order order, Direction direction,
+                          PageCursor cursor) {
+        this(size, pageNumber, search, order, direction);
+        this.cursor = cursor;
+    }
+
     @Override
     public String toString() {
         return "PageParameters [size=" + this.size + ", pageNumber=" + this.pageNumber + ", search=" + this.search
-                + ", order=" + this.order + "]";
+                + ", order=" + this.order + ", cursor=" + this.cursor + ", countStrategy=" + this.countStrategy + "]";
     }
 
     public String getSearch() {
@@ -64,7 +95,17 @@ public class PageParameters {
     }
 
     public void setSearch(String search) {
-        this.search = search;
+        this.search = normalize(search);
+    }
+
+    /**
+     * normalize a search once for all, so that the counts, their cache and the results all use the same value.
+     *
+     * @param search search string, can be null
+     * @return the search without the leading and trailing spaces, empty if null
+     */
+    private static String normalize(String search) {
+        return search == null ? "" : search.trim();
     }
 
     public Order getOrder() {
@@ -90,7 +131,7 @@ public class PageParameters {
      * @return new page number
      */
     public long decPage() {
-        return this.pageNumber > 0 ? this.pageNumber : 0;
+        return this.pageNumber > 0 ? --this.pageNumber : 0;
     }
 
     /**
@@ -102,6 +143,8 @@ public class PageParameters {
         private String search = "";
         private Order order = Order.NAME;
         private Direction direction = Direction.ASC;
+        private PageCursor cursor = null;
+        private CountStrategy countStrategy = CountStrategy.CACHED;
 
         public Builder size(int size) {
             this.size = size;
@@ -128,8 +171,21 @@ public class PageParameters {
             return this;
         }
 
+        public Builder cursor(PageCursor cursor) {
+            this.cursor = cursor;
+            return this;
+        }
+
+        public Builder countStrategy(CountStrategy countStrategy) {
+            this.countStrategy = countStrategy;
+            return this;
+        }
+
         public PageParameters build() {
-            return new PageParameters(this.size, this.pageNumber, this.search, this.order, this.direction);
+            PageParameters params = new PageParameters(this.size, this.pageNumber, this.search, this.order,
+                    this.direction, this.cursor);
+            params.setCountStrategy(this.countStrategy);
+            return params;
         }
     }
 
@@ -153,6 +209,22 @@ public class PageParameters {
         return this.direction;
     }
 
+    public PageCursor getCursor() {
+        return this.cursor;
+    }
+
+    public void setCursor(PageCursor cursor) {
+        this.cursor = cursor;
+    }
+
+    public CountStrategy getCountStrategy() {
+        return this.countStrategy;
+    }
+
+    public void setCountStrategy(CountStrategy countStrategy) {
+        this.countStrategy = countStrategy;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -164,7 +236,9 @@ public class PageParameters {
         if (pageNumber != that.pageNumber) return false;
         if (search != null ? !search.equals(that.search) : that.search != null) return false;
         if (order != that.order) return false;
-        return direction == that.direction;
+        if (direction != that.direction) return false;
+        if (countStrategy != that.countStrategy) return false;
+        return cursor != null ? cursor.equals(that.cursor) : that.cursor == null;
 
     }
 
@@ -175,6 +249,8 @@ public class PageParameters {
         result = 31 * result + (search != null ? search.hashCode() : 0);
         result = 31 * result + (order != null ? order.hashCode() : 0);
         result = 31 * result + (direction != null ? direction.hashCode() : 0);
+        result = 31 * result + (cursor != null ? cursor.hashCode() : 0);
+        result = 31 * result + (countStrategy != null ? countStrategy.hashCode() : 0);
         return result;
     }
 }
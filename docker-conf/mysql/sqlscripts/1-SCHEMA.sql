@@ -8,6 +8,7 @@ drop schema if exists `computer-database-db`;
   create table company (
     id                        bigint not null auto_increment,
     name                      varchar(255),
+    updated                   timestamp not null default current_timestamp on update current_timestamp,
     constraint pk_company primary key (id))
   ;
 
@@ -17,6 +18,8 @@ drop schema if exists `computer-database-db`;
     introduced                timestamp NULL,
     discontinued              timestamp NULL,
     company_id                bigint default NULL,
+    company_name              varchar(255) default NULL,
+    updated                   timestamp not null default current_timestamp on update current_timestamp,
     constraint pk_computer primary key (id))
   ;
 
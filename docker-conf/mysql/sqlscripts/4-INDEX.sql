@@ -1,5 +1,14 @@
 use computer-database-db;
 
-create index ix_name on computer(name);
-create index ix_introduced on computer(introduced);
-create index ix_discontinued on computer(discontinued);
+-- copy of the company name in computer, maintained by the application once the entries are loaded
+update computer c join company co on co.id = c.company_id set c.company_name = co.name;
+
+-- one index per sort column, ending with the id used as a tie-breaker, so that every order can be read from an index
+create index ix_name on computer(name, id);
+create index ix_introduced on computer(introduced, id);
+create index ix_discontinued on computer(discontinued, id);
+create index ix_company_id_name on computer(company_id, name, id);
+create index ix_computer_company_name on computer(company_name, id);
+create index ix_name_id on company(name, id);
+create index ix_computer_updated on computer(updated);
+create index ix_company_updated on company(updated);
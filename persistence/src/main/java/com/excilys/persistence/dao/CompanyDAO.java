@@ -4,6 +4,7 @@ import com.excilys.core.model.Company;
 import com.excilys.core.model.PageParameters;
 import com.excilys.core.model.QCompany;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
@@ -34,7 +35,8 @@ public class CompanyDAO implements DAO<Company> {
 
     @Override
     public Company find(Long id) {
-        return this.jpaQuery.selectFrom(this.qcompany).where(this.qcompany.id.eq(id)).fetchFirst();
+        // goes through the second level cache
+        return id == null ? null : this.em.find(Company.class, id);
     }
 
     @Override
@@ -59,13 +61,13 @@ public class CompanyDAO implements DAO<Company> {
     }
 
     @Override
-    public void deleteAll(List<Long> objs) {
+    public long deleteAll(List<Long> objs) {
         throw new UnsupportedOperationException();
     }
 
     @Override
     public List<Company> findAll() {
-        return this.jpaQuery.selectFrom(this.qcompany).fetch();
+        return this.jpaQuery.selectFrom(this.qcompany).setHint(QueryHints.CACHEABLE, true).fetch();
     }
 
     public List<Company> findAll(PageParameters page) {
@@ -74,7 +76,7 @@ public class CompanyDAO implements DAO<Company> {
 
     @Override
     public long count() throws DAOException {
-        return this.jpaQuery.from(this.qcompany).fetchCount();
+        return this.jpaQuery.from(this.qcompany).setHint(QueryHints.CACHEABLE, true).fetchCount();
     }
 
 }
@@ -1,27 +1,58 @@
 package com.excilys.persistence.dao;
 
+import com.excilys.core.dto.ComputerDTO;
 import com.excilys.core.model.Computer;
+import com.excilys.core.model.Page;
+import com.excilys.core.model.PageCursor;
 import com.excilys.core.model.PageParameters;
 import com.excilys.core.model.PageParameters.Direction;
 import com.excilys.core.model.PageParameters.Order;
 import com.excilys.core.model.QCompany;
 import com.excilys.core.model.QComputer;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.ConstructorExpression;
 import com.querydsl.core.types.OrderSpecifier;
-import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.ComparableExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.search.FullTextSession;
 import org.hibernate.search.SearchFactory;
+import org.hibernate.search.batchindexing.MassIndexerProgressMonitor;
+import org.hibernate.search.engine.ProjectionConstants;
 import org.hibernate.search.jpa.FullTextEntityManager;
 import org.hibernate.search.jpa.FullTextQuery;
 import org.hibernate.search.jpa.Search;
 import org.hibernate.search.query.dsl.QueryBuilder;
+import org.hibernate.type.LocalDateType;
+import org.hibernate.type.LongType;
+import org.hibernate.type.StringType;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.Cache;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
-import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Singleton for the ComputerDAO.
@@ -33,7 +64,41 @@ import java.util.List;
 @Repository
 public class ComputerDAO implements DAO<Computer> {
 
-    private static final int LARGE_OFFSET = 15000;
+    /**
+     * deferred join: the page of ids is read from the index of the sort column alone, then joined to the full rows.
+     * The placeholder receives the order by clause.
+     */
+    private static final String DEFERRED_JOIN = "select {c.*}, {co.*}"
+            + " from (select c.id from computer c order by %s limit :limit offset :offset) p"
+            + " join computer c on c.id = p.id"
+            + " left join company co on co.id = c.company_id"
+            + " order by %1$s";
+
+    /**
+     * deferred join of the list views, reading only the columns of {@link ComputerDTO} (the company name being
+     * copied on the computer, there is no join to the company).
+     */
+    private static final String DEFERRED_JOIN_DTO = "select c.id, c.name, c.introduced, c.discontinued,"
+            + " c.company_id, c.company_name"
+            + " from (select c.id from computer c order by %s limit :limit offset :offset) p"
+            + " join computer c on c.id = p.id"
+            + " order by %1$s";
+
+    /**
+     * key used by {@link #countByCompany()} for the computers without company.
+     */
+    public static final Long NO_COMPANY = 0L;
+
+    /**
+     * number of computers indexed per batch when a company is renamed.
+     */
+    private static final int REINDEX_BATCH_SIZE = 500;
+
+    /**
+     * number of computers deleted per statement by the bulk deletes, far below the limit of the placeholders of a
+     * prepared statement.
+     */
+    private static final int DELETE_BATCH_SIZE = 1000;
 
     private EntityManager em;
 
@@ -43,10 +108,52 @@ public class ComputerDAO implements DAO<Computer> {
 
     private QCompany qcompany = QCompany.company;
 
+    /**
+     * columns of the list views, built into dtos by the query instead of entities: no hydration, no snapshot kept by
+     * the persistence context for the dirty checking, and no mapping afterwards. The company id is the foreign key and
+     * the name its copy on the computer, the company table is not read.
+     */
+    private final ConstructorExpression<ComputerDTO> dto = Projections.constructor(ComputerDTO.class,
+            this.qcomputer.id, this.qcomputer.name, this.qcomputer.introduced, this.qcomputer.discontinued,
+            this.qcomputer.company.id, this.qcomputer.companyName);
+
+    @Autowired
+    private PagingPlanner pagingPlanner;
+
+    /**
+     * get the order by of a page: the sort column then the id, both in the direction of the page, so that the order
+     * of the rows is unique and the pages don't overlap.
+     *
+     * @param o sort column
+     * @param d direction of the sort
+     * @return order specifiers to give to the query
+     */
+    public static OrderSpecifier<?>[] getOrderMethod(Order o, Direction d) {
+        return ComputerDAO.getOrderMethod(o, d != Direction.DESC);
+    }
+
+    private static OrderSpecifier<?>[] getOrderMethod(Order order, boolean ascending) {
+        com.querydsl.core.types.Order o = ascending ? com.querydsl.core.types.Order.ASC : com.querydsl.core.types.Order.DESC;
+
+        return new OrderSpecifier<?>[]{
+                new OrderSpecifier<>(o, ComputerDAO.getOrderPath(order)),
+                new OrderSpecifier<>(o, QComputer.computer.id)
+        };
+    }
+
     @SuppressWarnings("rawtypes")
-    public static OrderSpecifier<? extends Comparable> getOrderMethod(Order o, Direction d) {
-        PathBuilder<QComputer> orderByExpression = new PathBuilder<>(QComputer.class, "computer");
-        return new OrderSpecifier<>(com.querydsl.core.types.Order.ASC, orderByExpression.get(o.toString().toLowerCase(), Comparable.class));
+    private static ComparableExpression<? extends Comparable> getOrderPath(Order order) {
+        switch (order) {
+            case INTRODUCED:
+                return QComputer.computer.introduced;
+            case DISCONTINUED:
+                return QComputer.computer.discontinued;
+            case COMPANY_NAME:
+                return QComputer.computer.companyName;
+            case NAME:
+            default:
+                return QComputer.computer.name;
+        }
     }
 
     @PersistenceContext
@@ -57,7 +164,8 @@ public class ComputerDAO implements DAO<Computer> {
 
     @Override
     public Computer find(Long id) {
-        return this.jpaQuery.selectFrom(this.qcomputer).where(this.qcomputer.id.eq(id)).fetchFirst();
+        // goes through the second level cache
+        return id == null ? null : this.em.find(Computer.class, id);
     }
 
     @Override
@@ -67,6 +175,38 @@ public class ComputerDAO implements DAO<Computer> {
         return obj;
     }
 
+    /**
+     * insert new computers with jdbc batches.
+     * <p>
+     * the persistence context is flushed and cleared every batchSize computers, which should match
+     * hibernate.jdbc.batch_size, so that it doesn't grow with the number of computers. The computers are not put in the
+     * second level cache: an import would only push the computers being read out of it.
+     *
+     * @param computers computers to insert, without id
+     * @param batchSize number of computers per jdbc batch
+     */
+    public void createAll(List<Computer> computers, int batchSize) {
+        Session session = this.em.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+
+        try {
+            for (int i = 0; i < computers.size(); i++) {
+                this.em.persist(computers.get(i));
+
+                if ((i + 1) % batchSize == 0) {
+                    this.em.flush();
+                    this.em.clear();
+                }
+            }
+
+            this.em.flush();
+            this.em.clear();
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+    }
+
     @Override
     public Computer update(Computer obj) {
         return this.em.merge(obj);
@@ -79,16 +219,94 @@ public class ComputerDAO implements DAO<Computer> {
 
     /**
      * Delete computers based on their company.
+     * <p>
+     * the computers are deleted by chunks of ids, so that neither the statements nor the memory used grow with the
+     * size of the company. The deleted computers are purged from the search index when the transaction commits.
      *
      * @param id id of the company to whom the computers to delete belong.
+     * @return number of computers deleted
+     */
+    public long deleteByCompanyId(Long id) {
+        long affected = 0;
+        List<Long> ids;
+
+        do {
+            // the chunks deleted are no longer read
+            ids = this.jpaQuery.select(this.qcomputer.id)
+                    .from(this.qcomputer)
+                    .where(this.qcomputer.company.id.eq(id))
+                    .limit(DELETE_BATCH_SIZE)
+                    .fetch();
+
+            if (!ids.isEmpty()) {
+                affected += this.deleteAll(ids);
+            }
+        } while (ids.size() == DELETE_BATCH_SIZE);
+
+        return affected;
+    }
+
+    /**
+     * Copy the new name of a company to its computers, see {@link Computer#getCompanyName()}.
+     * <p>
+     * the bulk update bypasses the search index, see {@link #indexByCompanyId(Long)}.
+     *
+     * @param id   id of the renamed company
+     * @param name new name of the company
+     * @return number of computers updated
+     */
+    public long renameCompany(Long id, String name) {
+        long affected = this.jpaQuery.update(this.qcomputer)
+                .set(this.qcomputer.companyName, name)
+                .where(this.qcomputer.company.id.eq(id))
+                .execute();
+
+        // the bulk update bypasses the entities, the updated ids are unknown: drop all the cached computers
+        this.em.getEntityManagerFactory().getCache().evict(Computer.class);
+
+        return affected;
+    }
+
+    /**
+     * Index again the computers of a company, after it was renamed.
+     * <p>
+     * the computers are read by batches of ids, the persistence context is cleared after each batch: must be called in
+     * a transaction of its own, once the rename is committed.
+     *
+     * @param id id of the company
+     * @return number of computers indexed
      */
-    public void deleteByCompanyId(Long id) {
-        this.jpaQuery.delete(this.qcomputer).where(this.qcomputer.company.id.eq(id)).execute();
+    public long indexByCompanyId(Long id) {
+        return this.index(this.qcomputer.company.id.eq(id), REINDEX_BATCH_SIZE, indexed -> { });
     }
 
+    /**
+     * Delete computers by their ids, by chunks of {@value #DELETE_BATCH_SIZE} ids per statement.
+     * <p>
+     * the deleted computers are purged from the search index when the transaction commits.
+     *
+     * @param objs ids of the computers
+     * @return number of computers deleted
+     */
     @Override
-    public void deleteAll(List<Long> objs) {
-        this.jpaQuery.delete(this.qcomputer).where(this.qcomputer.id.in(objs)).execute();
+    public long deleteAll(List<Long> objs) {
+        Cache cache = this.em.getEntityManagerFactory().getCache();
+        FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(this.em);
+        long affected = 0;
+
+        for (int from = 0; from < objs.size(); from += DELETE_BATCH_SIZE) {
+            List<Long> ids = objs.subList(from, Math.min(from + DELETE_BATCH_SIZE, objs.size()));
+            affected += this.jpaQuery.delete(this.qcomputer).where(this.qcomputer.id.in(ids)).execute();
+
+            // the bulk delete bypasses the entities: evict them from the second level cache, and purge them from the
+            // search index
+            for (Long id : ids) {
+                cache.evict(Computer.class, id);
+                fullTextEntityManager.purge(Computer.class, id);
+            }
+        }
+
+        return affected;
     }
 
     @Override
@@ -101,20 +319,64 @@ public class ComputerDAO implements DAO<Computer> {
     @Override
     public List<Computer> findAll(PageParameters page) {
         if (page.getSearch().isEmpty()) {
-            if (page.getSize() * page.getPageNumber() > LARGE_OFFSET) {
-                return this.findAllWithSubQuery(page);
+            if (page.getCursor() != null) {
+                return this.findAllKeyset(this.jpaQuery.selectFrom(this.qcomputer)
+                        .leftJoin(this.qcomputer.company, this.qcompany), page);
             } else {
-                return this.findAllNormal(page);
+                return this.findAllPlanned(page);
             }
         } else {
-            return this.findAllLucene(page);
+            return this.searchPage(page).getList();
         }
     }
 
-    private List<Computer> findAllNormal(PageParameters page) {
+    /**
+     * read a page with the plan chosen by the {@link PagingPlanner}, and give it the duration of the query.
+     */
+    private List<Computer> findAllPlanned(PageParameters page) {
+        return this.planned(page, this::findAllOffset, this::findAllDeferredJoin);
+    }
+
+    private <T> List<T> planned(PageParameters page, Function<PageParameters, List<T>> offsetPlan,
+                                Function<PageParameters, List<T>> deferredJoinPlan) {
+        long offset = page.getSize() * page.getPageNumber();
+        PagingPlanner.Plan plan = this.pagingPlanner.choose(page.getOrder(), offset);
+
+        long start = System.nanoTime();
+        List<T> rows = plan == PagingPlanner.Plan.DEFERRED_JOIN ? deferredJoinPlan.apply(page) : offsetPlan.apply(page);
+        this.pagingPlanner.record(page.getOrder(), offset, plan, System.nanoTime() - start);
+
+        return rows;
+    }
+
+    /**
+     * Read a page of the list views directly as dtos, see {@link #dto}. Same rows and order as
+     * {@link #findAll(PageParameters)}, with the same plans.
+     * <p>
+     * the dtos are not managed: this is for reading only. The planner measures both the entity and the dto queries:
+     * their costs differ, but the offset where the deferred join pays is about the same for both.
+     *
+     * @param page page parameters, without search
+     * @return computers of the page
+     */
+    public List<ComputerDTO> findAllDTO(PageParameters page) {
+        if (page.getCursor() != null) {
+            return this.findAllKeyset(this.jpaQuery.select(this.dto).from(this.qcomputer), page);
+        } else {
+            return this.planned(page, this::findAllDTOOffset, this::findAllDTODeferredJoin);
+        }
+    }
+
+    /**
+     * dto version of {@link #findAllOffset(PageParameters)}.
+     *
+     * @param page page parameters, without search
+     * @return computers of the page
+     */
+    public List<ComputerDTO> findAllDTOOffset(PageParameters page) {
         return this.jpaQuery
-                .selectFrom(this.qcomputer)
-                .leftJoin(this.qcomputer.company, this.qcompany)
+                .select(this.dto)
+                .from(this.qcomputer)
                 .orderBy(ComputerDAO.getOrderMethod(page.getOrder(), page.getDirection()))
                 .offset(page.getSize() * page.getPageNumber())
                 .limit(page.getSize())
@@ -122,77 +384,619 @@ public class ComputerDAO implements DAO<Computer> {
     }
 
     /**
-     * this is more efficient when the offset is large
+     * dto version of {@link #findAllDeferredJoin(PageParameters)}.
+     *
+     * @param page page parameters, without search
+     * @return computers of the page
      */
-    private List<Computer> findAllWithSubQuery(PageParameters page) {
+    @SuppressWarnings("unchecked")
+    public List<ComputerDTO> findAllDTODeferredJoin(PageParameters page) {
+        String orderBy = this.getSqlOrder(page.getOrder(), page.getDirection() != Direction.DESC);
+
+        List<Object[]> rows = this.em.unwrap(Session.class)
+                .createSQLQuery(String.format(DEFERRED_JOIN_DTO, orderBy))
+                .addScalar("id", LongType.INSTANCE)
+                .addScalar("name", StringType.INSTANCE)
+                .addScalar("introduced", LocalDateType.INSTANCE)
+                .addScalar("discontinued", LocalDateType.INSTANCE)
+                .addScalar("company_id", LongType.INSTANCE)
+                .addScalar("company_name", StringType.INSTANCE)
+                .setParameter("limit", page.getSize())
+                .setParameter("offset", page.getSize() * page.getPageNumber())
+                .list();
+
+        List<ComputerDTO> computers = new ArrayList<>(rows.size());
+
+        for (Object[] row : rows) {
+            computers.add(new ComputerDTO((Long) row[0], (String) row[1], (LocalDate) row[2], (LocalDate) row[3],
+                    (Long) row[4], (String) row[5]));
+        }
 
-        List<Long> ids = this.jpaQuery.select(this.qcomputer.id)
-                .from(this.qcomputer)
+        return computers;
+    }
+
+    /**
+     * Read a page with an offset: the database reads and skips the full rows before the page.
+     * <p>
+     * the cheapest plan for the first pages. Same rows and order as {@link #findAllDeferredJoin(PageParameters)}.
+     *
+     * @param page page parameters, without search
+     * @return computers of the page
+     */
+    public List<Computer> findAllOffset(PageParameters page) {
+        return this.jpaQuery
+                .selectFrom(this.qcomputer)
+                .leftJoin(this.qcomputer.company, this.qcompany)
                 .orderBy(ComputerDAO.getOrderMethod(page.getOrder(), page.getDirection()))
                 .offset(page.getSize() * page.getPageNumber())
                 .limit(page.getSize())
                 .fetch();
+    }
 
-        return this.jpaQuery.selectFrom(this.qcomputer)
-                .leftJoin(this.qcomputer.company, this.qcompany)
-                .where(this.qcomputer.id.in(ids))
+    /**
+     * Read a page with a deferred join: the ids of the page are found by skipping the rows of the index of the sort
+     * column, then only the rows of the page are read, in a single statement.
+     * <p>
+     * the cheapest plan for the deep pages. Same rows and order as {@link #findAllOffset(PageParameters)}.
+     *
+     * @param page page parameters, without search
+     * @return computers of the page
+     */
+    @SuppressWarnings("unchecked")
+    public List<Computer> findAllDeferredJoin(PageParameters page) {
+        String orderBy = this.getSqlOrder(page.getOrder(), page.getDirection() != Direction.DESC);
+
+        List<Object[]> rows = this.em.unwrap(Session.class)
+                .createSQLQuery(String.format(DEFERRED_JOIN, orderBy))
+                .addEntity("c", Computer.class)
+                .addJoin("co", "c.company")
+                .setParameter("limit", page.getSize())
+                .setParameter("offset", page.getSize() * page.getPageNumber())
+                .list();
+
+        List<Computer> computers = new ArrayList<>(rows.size());
+
+        for (Object[] row : rows) {
+            computers.add((Computer) row[0]);
+        }
+
+        return computers;
+    }
+
+    /**
+     * sql equivalent of {@link #getOrderMethod(Order, Direction)}, on the aliases of {@link #DEFERRED_JOIN} and
+     * {@link #DEFERRED_JOIN_DTO}.
+     */
+    private String getSqlOrder(Order order, boolean ascending) {
+        String column;
+
+        switch (order) {
+            case INTRODUCED:
+                column = "c.introduced";
+                break;
+            case DISCONTINUED:
+                column = "c.discontinued";
+                break;
+            case COMPANY_NAME:
+                column = "c.company_name";
+                break;
+            case NAME:
+            default:
+                column = "c.name";
+                break;
+        }
+
+        String direction = ascending ? " asc" : " desc";
+        return column + direction + ", c.id" + direction;
+    }
+
+    /**
+     * keyset (seek) pagination: instead of skipping rows with an offset, start right after (or before) the row the
+     * cursor points to, using the index on the sort column. The cost of a page doesn't depend on its depth.
+     */
+    private <T> List<T> findAllKeyset(JPAQuery<T> query, PageParameters page) {
+        PageCursor cursor = page.getCursor();
+        // the previous page of a descending order is read in ascending order
+        boolean ascending = (page.getDirection() != Direction.DESC) != cursor.isBackward();
+
+        List<T> computers = query
+                .where(this.getSeekPredicate(cursor, ascending))
+                .orderBy(ComputerDAO.getOrderMethod(cursor.getOrder(), ascending))
+                .limit(page.getSize())
                 .fetch();
+
+        // the previous page is read backward, put it back in the right order
+        if (cursor.isBackward()) {
+            Collections.reverse(computers);
+        }
+
+        return computers;
+    }
+
+    private BooleanExpression getSeekPredicate(PageCursor cursor, boolean ascending) {
+        switch (cursor.getOrder()) {
+            case INTRODUCED:
+                return this.seek(this.qcomputer.introduced, cursor.getKey() == null ? null : LocalDate.parse(cursor.getKey()), cursor.getId(), ascending);
+            case DISCONTINUED:
+                return this.seek(this.qcomputer.discontinued, cursor.getKey() == null ? null : LocalDate.parse(cursor.getKey()), cursor.getId(), ascending);
+            case COMPANY_NAME:
+                return this.seek(this.qcomputer.companyName, cursor.getKey(), cursor.getId(), ascending);
+            case NAME:
+            default:
+                return this.seek(this.qcomputer.name, cursor.getKey(), cursor.getId(), ascending);
+        }
+    }
+
+    /**
+     * build the condition (path, id) > (key, id) when ascending, (path, id) < (key, id) otherwise.
+     * <p>
+     * mysql puts the null values first in ascending order, the condition has to take them into account.
+     */
+    private <T extends Comparable> BooleanExpression seek(ComparableExpression<T> path, T key, Long id, boolean ascending) {
+        if (ascending) {
+            if (key == null) {
+                return path.isNull().and(this.qcomputer.id.gt(id)).or(path.isNotNull());
+            } else {
+                return path.gt(key).or(path.eq(key).and(this.qcomputer.id.gt(id)));
+            }
+        } else {
+            if (key == null) {
+                return path.isNull().and(this.qcomputer.id.lt(id));
+            } else {
+                return path.lt(key).or(path.eq(key).and(this.qcomputer.id.lt(id))).or(path.isNull());
+            }
+        }
     }
 
     /**
      * Use hibernate-search with lucene back-end to do the search.
+     * <p>
+     * a single lucene query returns both the computers of the page and the total number of hits, so the total is
+     * consistent with the results (the search also matches the company name) and no sql count is needed.
+     *
+     * @param page page parameters, with a search
+     * @return page containing the computers and the total number of hits
      */
     @SuppressWarnings("unchecked")
-    private List<Computer> findAllLucene(PageParameters page) {
+    public Page<Computer> searchPage(PageParameters page) {
 
-        FullTextEntityManager fullTextEntityManager = org.hibernate.search.jpa.Search.getFullTextEntityManager(em);
-        SearchFactory sf = fullTextEntityManager.getSearchFactory();
+        FullTextQuery fullTextQuery = this.createLuceneQuery(page);
+        this.paginate(fullTextQuery, page);
 
-        QueryBuilder computerQB = sf.buildQueryBuilder().forEntity(Computer.class).get();
+        List<Computer> computers = fullTextQuery.getResultList();
 
-        org.apache.lucene.search.Query luceneQuery = computerQB.keyword()
-                .onField("name")
-                .andField("company.name")
-                .matching(page.getSearch())
-                .createQuery();
+        // the size was computed by the query above, no second search
+        long total = fullTextQuery.getResultSize();
+
+        return new Page.Builder<Computer>().list(computers).totalCount(total).params(page).build();
+    }
+
+    /**
+     * Search the computers with hibernate-search, reading the fields stored in the index instead of loading the
+     * entities.
+     * <p>
+     * the rows are built from the lucene documents only: no sql query and nothing added to the persistence context.
+     *
+     * @param page page parameters, with a search
+     * @return page containing the computers and the total number of hits
+     */
+    public Page<ComputerDTO> searchPageProjection(PageParameters page) {
+
+        FullTextQuery fullTextQuery = this.createLuceneQuery(page);
+        this.paginate(fullTextQuery, page);
+        fullTextQuery.setProjection(ProjectionConstants.ID, "name", "introduced", "discontinued", "company.id",
+                "company.name");
+
+        List<?> rows = fullTextQuery.getResultList();
+        List<ComputerDTO> computers = new ArrayList<>(rows.size());
+
+        for (Object row : rows) {
+            computers.add(this.toDTO((Object[]) row));
+        }
+
+        return new Page.Builder<ComputerDTO>().list(computers)
+                .totalCount((long) fullTextQuery.getResultSize())
+                .params(page)
+                .build();
+    }
+
+    /**
+     * build a dto from a projection row, same output as {@link ComputerDTO#ComputerDTO(Computer)}.
+     */
+    private ComputerDTO toDTO(Object[] row) {
+        Object companyId = row[4];
+
+        return new ComputerDTO(row[0].toString(),
+                (String) row[1],
+                row[2] == null ? "" : row[2].toString(),
+                row[3] == null ? "" : row[3].toString(),
+                companyId == null ? null : companyId.toString(),
+                row[5] == null ? "" : (String) row[5]);
+    }
 
-        FullTextQuery fullTextQuery = fullTextEntityManager.createFullTextQuery(luceneQuery, Computer.class);
+    /**
+     * apply the offset, the size and the order of the page to a full text query.
+     */
+    private void paginate(FullTextQuery fullTextQuery, PageParameters page) {
         fullTextQuery.setFirstResult((int) (page.getSize() * page.getPageNumber()));
         fullTextQuery.setMaxResults((int) page.getSize());
+        fullTextQuery.setSort(this.getLuceneSort(page));
+    }
+
+    /**
+     * get the lucene sort matching the order and the direction of the page, then the id so that the order of the hits
+     * doesn't change with the merges of the index. The id is indexed as a string: ties are not in the order of the sql
+     * queries, but always in the same order.
+     */
+    private Sort getLuceneSort(PageParameters page) {
+        boolean reverse = page.getDirection() == Direction.DESC;
+        SortField id = new SortField("id", SortField.Type.STRING, reverse);
 
         switch (page.getOrder()) {
-            case NAME:
-                fullTextQuery.setSort(new Sort(new SortField("name", SortField.Type.STRING)));
-                break;
             case INTRODUCED:
-                fullTextQuery.setSort(new Sort(new SortField("introduced", SortField.Type.INT)));
-                break;
+                return new Sort(new SortField("introduced", SortField.Type.INT, reverse), id);
             case DISCONTINUED:
-                fullTextQuery.setSort(new Sort(new SortField("discontinued", SortField.Type.INT)));
-                break;
+                return new Sort(new SortField("discontinued", SortField.Type.INT, reverse), id);
             case COMPANY_NAME:
-                fullTextQuery.setSort(new Sort(new SortField("company.name", SortField.Type.STRING)));
-                break;
+                return new Sort(new SortField("companyName", SortField.Type.STRING, reverse), id);
+            case NAME:
             default:
-                fullTextQuery.setSort(new Sort(new SortField("name", SortField.Type.STRING)));
-                break;
+                return new Sort(new SortField("name", SortField.Type.STRING, reverse), id);
+        }
+    }
+
+    /**
+     * create the full text query matching the search of the page parameters.
+     */
+    private FullTextQuery createLuceneQuery(PageParameters page) {
+        FullTextEntityManager fullTextEntityManager = org.hibernate.search.jpa.Search.getFullTextEntityManager(em);
+        return fullTextEntityManager.createFullTextQuery(this.buildLuceneQuery(page), Computer.class);
+    }
+
+    /**
+     * build the lucene query matching the search on the computer and company names.
+     */
+    private org.apache.lucene.search.Query buildLuceneQuery(PageParameters page) {
+        SearchFactory sf = org.hibernate.search.jpa.Search.getFullTextEntityManager(em).getSearchFactory();
+
+        QueryBuilder computerQB = sf.buildQueryBuilder().forEntity(Computer.class).get();
+
+        return computerQB.keyword()
+                .onField("name")
+                .andField("company.name")
+                .matching(page.getSearch())
+                .createQuery();
+    }
+
+    /**
+     * Read all the computers matching the search and in the order of the page parameters, one row at a time. The
+     * page number and size are ignored.
+     * <p>
+     * the rows are read through a forward only cursor as scalar columns: they are never added to the persistence
+     * context, so the memory used doesn't depend on the number of computers. With mysql, a fetch size of
+     * Integer.MIN_VALUE streams the rows instead of loading the whole result set in the driver. Without search, or
+     * with a search while the index is not available, the computers are read with sql (the search matching the
+     * names starting with it, as {@link #searchPageLike(PageParameters)}).
+     *
+     * @param page      filters and order of the rows
+     * @param fetchSize jdbc fetch size
+     * @param consumer  receives each computer
+     * @return number of computers read
+     */
+    public long scroll(PageParameters page, int fetchSize, Consumer<ComputerDTO> consumer) {
+        boolean ascending = page.getDirection() != Direction.DESC;
+
+        JPAQuery<Tuple> query = this.jpaQuery
+                .select(this.qcomputer.id, this.qcomputer.name, this.qcomputer.introduced,
+                        this.qcomputer.discontinued, this.qcompany.id, this.qcompany.name)
+                .from(this.qcomputer)
+                .leftJoin(this.qcomputer.company, this.qcompany)
+                .orderBy(ComputerDAO.getOrderMethod(page.getOrder(), ascending))
+                .setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.READ_ONLY, true);
+
+        if (!page.getSearch().isEmpty()) {
+            query.where(this.getLikePredicate(page));
         }
 
-        return fullTextQuery.getResultList();
+        long count = 0;
+
+        // iterate() scrolls forward only through the hibernate results
+        try (CloseableIterator<Tuple> rows = query.iterate()) {
+            while (rows.hasNext()) {
+                consumer.accept(this.toDTO(rows.next().toArray()));
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Read all the computers matching the search with hibernate-search, one row at a time. The page number and size
+     * are ignored.
+     * <p>
+     * the rows are read from the fields stored in the index, by batches of fetchSize documents.
+     *
+     * @param page      search and order of the rows
+     * @param fetchSize number of documents loaded at once
+     * @param consumer  receives each computer
+     * @return number of computers read
+     */
+    public long scrollSearch(PageParameters page, int fetchSize, Consumer<ComputerDTO> consumer) {
+        FullTextSession fullTextSession = org.hibernate.search.Search.getFullTextSession(this.em.unwrap(Session.class));
+
+        org.hibernate.search.FullTextQuery fullTextQuery = fullTextSession
+                .createFullTextQuery(this.buildLuceneQuery(page), Computer.class)
+                .setProjection(ProjectionConstants.ID, "name", "introduced", "discontinued", "company.id",
+                        "company.name")
+                .setSort(this.getLuceneSort(page))
+                .setFetchSize(fetchSize);
+
+        ScrollableResults results = fullTextQuery.scroll();
+        long count = 0;
+
+        try {
+            while (results.next()) {
+                consumer.accept(this.toDTO(results.get()));
+                count++;
+            }
+        } finally {
+            results.close();
+        }
+
+        return count;
+    }
+
+    /**
+     * Rebuild the search index of the computers from the database. Blocks until the index is built.
+     *
+     * @param batchSize number of computers loaded per query
+     * @param threads   number of threads loading the computers
+     * @param fetchSize jdbc fetch size used to scroll through the ids
+     * @param monitor   receives the progress of the indexing
+     * @throws InterruptedException if interrupted while indexing
+     */
+    public void buildIndex(int batchSize, int threads, int fetchSize, MassIndexerProgressMonitor monitor)
+            throws InterruptedException {
+        FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(em);
+        fullTextEntityManager.createIndexer(Computer.class)
+                .batchSizeToLoadObjects(batchSize)
+                .threadsToLoadObjects(threads)
+                .idFetchSize(fetchSize)
+                .progressMonitor(monitor)
+                .startAndWait();
+    }
+
+    /**
+     * Index the computers modified since a date, or whose company was modified since then.
+     * <p>
+     * the computers are read by batches of ids, the persistence context is cleared after each batch. Must be called in
+     * a transaction.
+     *
+     * @param since     date of the last indexing
+     * @param batchSize number of computers indexed per batch
+     * @param monitor   receives the progress of the indexing
+     * @return number of computers indexed
+     */
+    public long indexModifiedSince(LocalDateTime since, int batchSize, MassIndexerProgressMonitor monitor) {
+        BooleanExpression modified = this.qcomputer.updated.goe(since).or(this.qcompany.updated.goe(since));
+
+        monitor.addToTotalCount(this.jpaQuery.from(this.qcomputer)
+                .leftJoin(this.qcomputer.company, this.qcompany)
+                .where(modified)
+                .fetchCount());
+
+        return this.index(modified, batchSize, monitor::documentsAdded);
     }
 
-    public void buildIndex() throws InterruptedException, IOException {
+    /**
+     * Index the computers matching a condition, by batches of ids, clearing the persistence context after each batch.
+     *
+     * @param where     condition on the computers, their company being joined
+     * @param batchSize number of computers indexed per batch
+     * @param progress  receives the number of computers indexed by each batch
+     * @return number of computers indexed
+     */
+    private long index(BooleanExpression where, int batchSize, Consumer<Integer> progress) {
         FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(em);
-        fullTextEntityManager.createIndexer().startAndWait();
+        long indexed = 0;
+        Long lastId = 0L;
+        List<Computer> computers;
+
+        do {
+            computers = this.jpaQuery.selectFrom(this.qcomputer)
+                    .leftJoin(this.qcomputer.company, this.qcompany).fetchJoin()
+                    .where(where, this.qcomputer.id.gt(lastId))
+                    .orderBy(this.qcomputer.id.asc())
+                    .limit(batchSize)
+                    .fetch();
+
+            for (Computer computer : computers) {
+                fullTextEntityManager.index(computer);
+                lastId = computer.getId();
+            }
+
+            fullTextEntityManager.flushToIndexes();
+            fullTextEntityManager.clear();
+
+            indexed += computers.size();
+            progress.accept(computers.size());
+        } while (computers.size() == batchSize);
+
+        return indexed;
+    }
+
+    /**
+     * Copy the names of the companies to the computers which have none, see {@link Computer#getCompanyName()}: the
+     * column is empty on a database upgraded by hbm2ddl. Does nothing once the names are copied.
+     * <p>
+     * the update date of the computers filled changes, they are indexed again by {@link #indexModifiedSince}.
+     *
+     * @return number of computers filled
+     */
+    public int fillCompanyNames() {
+        return this.em.createNativeQuery("update computer c"
+                + " set company_name = (select co.name from company co where co.id = c.company_id)"
+                + " where c.company_name is null and c.company_id is not null").executeUpdate();
+    }
+
+    /**
+     * get the current date of the database, used as the mark of the last indexing.
+     *
+     * @return current timestamp of the database
+     */
+    public LocalDateTime now() {
+        Timestamp now = (Timestamp) this.em.createNativeQuery("select localtimestamp").getSingleResult();
+        return now.toLocalDateTime();
+    }
+
+    /**
+     * Purge from the search index the computers which are no longer in the database (deleted outside of the
+     * application).
+     * <p>
+     * the ids of the index are read by batches and looked up in the table, only the missing ones are purged: the
+     * index is reconciled without being rebuilt. Must be called in a transaction, the purges are applied when it
+     * commits.
+     *
+     * @param batchSize number of ids looked up per query
+     * @return number of computers purged
+     */
+    public long purgeDeleted(int batchSize) {
+        FullTextSession fullTextSession = org.hibernate.search.Search.getFullTextSession(this.em.unwrap(Session.class));
+
+        ScrollableResults results = fullTextSession
+                .createFullTextQuery(new MatchAllDocsQuery(), Computer.class)
+                .setProjection(ProjectionConstants.ID)
+                .setFetchSize(batchSize)
+                .scroll();
+
+        List<Long> missing = new ArrayList<>();
+        List<Long> ids = new ArrayList<>(batchSize);
+
+        try {
+            while (results.next()) {
+                ids.add((Long) results.get(0));
+
+                if (ids.size() == batchSize) {
+                    missing.addAll(this.findMissing(ids));
+                    ids.clear();
+                }
+            }
+        } finally {
+            results.close();
+        }
+
+        missing.addAll(this.findMissing(ids));
+
+        for (Long id : missing) {
+            fullTextSession.purge(Computer.class, id);
+        }
+
+        return missing.size();
+    }
+
+    /**
+     * get the ids which are not in the table.
+     *
+     * @param ids ids to look up
+     * @return ids without computer
+     */
+    private List<Long> findMissing(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> missing = new ArrayList<>(ids);
+        missing.removeAll(new HashSet<>(this.jpaQuery.select(this.qcomputer.id).from(this.qcomputer)
+                .where(this.qcomputer.id.in(ids))
+                .fetch()));
+
+        return missing;
+    }
+
+    /**
+     * Search the computers with sql, used while the search index is not available.
+     * <p>
+     * matches the computers or companies whose name starts with the search.
+     *
+     * @param page page parameters, with a search
+     * @return page containing the computers and the total number of computers matching
+     */
+    public Page<Computer> searchPageLike(PageParameters page) {
+        List<Computer> computers = this.jpaQuery
+                .selectFrom(this.qcomputer)
+                .leftJoin(this.qcomputer.company, this.qcompany)
+                .where(this.getLikePredicate(page))
+                .orderBy(ComputerDAO.getOrderMethod(page.getOrder(), page.getDirection()))
+                .offset(page.getSize() * page.getPageNumber())
+                .limit(page.getSize())
+                .fetch();
+
+        return new Page.Builder<Computer>().list(computers).totalCount(this.countLike(page)).params(page).build();
+    }
+
+    /**
+     * Count the computers matching the search with sql, used while the search index is not available.
+     *
+     * @param page parameters for the query.
+     * @return number of computers matching
+     */
+    public long countLike(PageParameters page) {
+        return this.jpaQuery
+                .from(this.qcomputer)
+                .leftJoin(this.qcomputer.company, this.qcompany)
+                .where(this.getLikePredicate(page))
+                .fetchCount();
+    }
+
+    private BooleanExpression getLikePredicate(PageParameters page) {
+        String pattern = page.getSearch() + "%";
+        return this.qcomputer.name.like(pattern).or(this.qcompany.name.like(pattern));
     }
 
     @Override
     public long count(PageParameters page) {
-        return this.jpaQuery.from(this.qcomputer).where(this.qcomputer.name.like(page.getSearch() + "%")).fetchCount();
+        if (page.getSearch().isEmpty()) {
+            return this.count();
+        } else {
+            // same query as the search, so that the count matches the results
+            return this.createLuceneQuery(page).getResultSize();
+        }
     }
 
+    /**
+     * Count the computers.
+     * <p>
+     * not cached by the query cache: the count is already kept by the services, and is read here to be reconciled
+     * with the writes made outside of the application, which don't invalidate the query cache.
+     *
+     * @return number of computers
+     */
     @Override
     public long count() {
         return this.jpaQuery.from(this.qcomputer).fetchCount();
     }
+
+    /**
+     * Count the computers of each company in a single query, not cached either, see {@link #count()}.
+     *
+     * @return map company id -> number of computers, computers without company are counted under the id 0
+     */
+    public Map<Long, Long> countByCompany() {
+        List<Tuple> rows = this.jpaQuery
+                .select(this.qcomputer.company.id, this.qcomputer.count())
+                .from(this.qcomputer)
+                .groupBy(this.qcomputer.company.id)
+                .fetch();
+
+        Map<Long, Long> result = new HashMap<>();
+
+        for (Tuple row : rows) {
+            Long companyId = row.get(this.qcomputer.company.id);
+            result.put(companyId == null ? NO_COMPANY : companyId, row.get(this.qcomputer.count()));
+        }
+
+        return result;
+    }
 }
@@ -51,8 +51,9 @@ public interface DAO<T> {
      * remove multiple object by their IDs.
      *
      * @param objs list of the object ids to remove
+     * @return number of objects removed
      */
-    void deleteAll(List<Long> objs);
+    long deleteAll(List<Long> objs);
 
     /**
      * return all object.
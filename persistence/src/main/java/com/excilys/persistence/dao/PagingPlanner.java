@@ -0,0 +1,153 @@
+package com.excilys.persistence.dao;
+
+import com.excilys.core.model.PageParameters.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Choose how {@link ComputerDAO} reads a page at a given offset: a plain offset/limit query, or a deferred join that
+ * skips the rows on the index only and reads the full rows of the page alone.
+ * <p>
+ * the offset where the deferred join starts to pay depends on the database, the hardware and the sort column, so it
+ * is measured instead of being fixed: the offsets are grouped by power of two, and for each sort column and group the
+ * cost of both plans is kept as an exponentially weighted moving average of the measured durations. The cheapest plan
+ * is used, and every explore queries the other one is run again so that the averages follow the changes of the data.
+ * Until both plans have been measured for a group, the plans are tried in turn, starting with the one given by the
+ * initial threshold.
+ *
+ * @author simon
+ */
+@Component
+public class PagingPlanner {
+
+    /**
+     * plans of a page query.
+     */
+    public enum Plan {
+        OFFSET, DEFERRED_JOIN
+    }
+
+    /**
+     * groups of offsets: the offsets between 2^(n-1) and 2^n - 1 are in the group n.
+     */
+    private static final int GROUPS = 64;
+
+    private final boolean adaptive;
+
+    private final long threshold;
+
+    private final int explore;
+
+    private final double smoothing;
+
+    private final Group[] groups;
+
+    /**
+     * planner constructor.
+     *
+     * @param adaptive  false to always use the threshold
+     * @param threshold offset from which the deferred join is used, until the plans are measured
+     * @param explore   number of queries between two runs of the plan measured as the most expensive
+     * @param smoothing weight of a new measure in the averages, between 0 and 1
+     */
+    @Autowired
+    public PagingPlanner(@Value("${page.plan.adaptive:true}") boolean adaptive,
+                         @Value("${page.plan.threshold:15000}") long threshold,
+                         @Value("${page.plan.explore:32}") int explore,
+                         @Value("${page.plan.smoothing:0.2}") double smoothing) {
+        this.adaptive = adaptive;
+        this.threshold = threshold;
+        this.explore = Math.max(explore, 1);
+        this.smoothing = smoothing;
+        this.groups = new Group[Order.values().length * GROUPS];
+
+        for (int i = 0; i < this.groups.length; i++) {
+            this.groups[i] = new Group();
+        }
+    }
+
+    /**
+     * choose the plan of a page query.
+     *
+     * @param order  sort column of the page
+     * @param offset number of rows skipped
+     * @return plan to run, whose duration is then given to {@link #record(Order, long, Plan, long)}
+     */
+    public synchronized Plan choose(Order order, long offset) {
+        Plan initial = offset > this.threshold ? Plan.DEFERRED_JOIN : Plan.OFFSET;
+
+        if (!this.adaptive) {
+            return initial;
+        }
+
+        Group group = this.group(order, offset);
+        group.queries++;
+
+        double offsetCost = group.cost[Plan.OFFSET.ordinal()];
+        double deferredCost = group.cost[Plan.DEFERRED_JOIN.ordinal()];
+
+        if (Double.isNaN(offsetCost) && Double.isNaN(deferredCost)) {
+            return initial;
+        } else if (Double.isNaN(offsetCost)) {
+            return Plan.OFFSET;
+        } else if (Double.isNaN(deferredCost)) {
+            return Plan.DEFERRED_JOIN;
+        }
+
+        Plan cheapest = offsetCost <= deferredCost ? Plan.OFFSET : Plan.DEFERRED_JOIN;
+
+        if (group.queries % this.explore == 0) {
+            return cheapest == Plan.OFFSET ? Plan.DEFERRED_JOIN : Plan.OFFSET;
+        }
+
+        return cheapest;
+    }
+
+    /**
+     * record the duration of a page query.
+     *
+     * @param order    sort column of the page
+     * @param offset   number of rows skipped
+     * @param plan     plan run
+     * @param duration duration of the query, in nanoseconds
+     */
+    public synchronized void record(Order order, long offset, Plan plan, long duration) {
+        if (!this.adaptive) {
+            return;
+        }
+
+        double[] cost = this.group(order, offset).cost;
+        int i = plan.ordinal();
+
+        cost[i] = Double.isNaN(cost[i]) ? duration : cost[i] + this.smoothing * (duration - cost[i]);
+    }
+
+    /**
+     * get the smallest offset from which the deferred join was measured as the cheapest plan.
+     *
+     * @param order sort column
+     * @return lower bound of the first group of offsets where the deferred join is cheaper, -1 if there is none
+     */
+    public synchronized long getCrossover(Order order) {
+        for (int n = 0; n < GROUPS; n++) {
+            double[] cost = this.groups[order.ordinal() * GROUPS + n].cost;
+
+            if (cost[Plan.DEFERRED_JOIN.ordinal()] < cost[Plan.OFFSET.ordinal()]) {
+                return n == 0 ? 0 : 1L << (n - 1);
+            }
+        }
+
+        return -1;
+    }
+
+    private Group group(Order order, long offset) {
+        int n = GROUPS - Long.numberOfLeadingZeros(Math.max(offset, 0));
+        return this.groups[order.ordinal() * GROUPS + Math.min(n, GROUPS - 1)];
+    }
+
+    private static class Group {
+        private final double[] cost = {Double.NaN, Double.NaN};
+        private long queries;
+    }
+}
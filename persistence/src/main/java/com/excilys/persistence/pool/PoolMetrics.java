@@ -0,0 +1,155 @@
+package com.excilys.persistence.pool;
+
+import com.excilys.core.dto.PoolStatsDTO;
+import com.zaxxer.hikari.metrics.MetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the Hikari connection pools, given to the pools as their {@link MetricsTrackerFactory}.
+ * <p>
+ * for each pool, keeps the connections in use, idle and waited for, and how long the connections took to be acquired
+ * as a histogram. The statistics are served by the rest api and logged periodically, so that the size of the pool can
+ * be compared to the number of request threads of the server.
+ *
+ * @author simon
+ */
+@Component
+public class PoolMetrics implements MetricsTrackerFactory {
+
+    /**
+     * upper bounds of the buckets of the acquire durations, in microseconds.
+     */
+    static final long[] ACQUIRE_BOUNDS = {10, 100, 1000, 10000, 100000, 1000000};
+
+    private final Logger LOGGER = LoggerFactory.getLogger(PoolMetrics.class);
+
+    private final Map<String, Tracker> trackers = new ConcurrentSkipListMap<>();
+
+    @Override
+    public MetricsTracker create(String poolName, PoolStats poolStats) {
+        Tracker tracker = new Tracker(poolName, poolStats);
+        this.trackers.put(poolName, tracker);
+        return tracker;
+    }
+
+    /**
+     * get the statistics of each pool, since its start.
+     *
+     * @return statistics, ordered by pool name
+     */
+    public List<PoolStatsDTO> getStats() {
+        List<PoolStatsDTO> stats = new ArrayList<>(this.trackers.size());
+
+        for (Tracker tracker : this.trackers.values()) {
+            stats.add(tracker.getStats());
+        }
+
+        return stats;
+    }
+
+    /**
+     * log the statistics of each pool.
+     */
+    @Scheduled(fixedDelayString = "${pool.metrics.log.delay:60000}", initialDelayString = "${pool.metrics.log.delay:60000}")
+    public void log() {
+        for (PoolStatsDTO stats : this.getStats()) {
+            this.LOGGER.info("{}", stats);
+        }
+    }
+
+    /**
+     * metrics of a pool, called by hikari on each connection acquired and released.
+     */
+    class Tracker extends MetricsTracker {
+
+        private final String poolName;
+
+        private final PoolStats poolStats;
+
+        private final AtomicLongArray histogram = new AtomicLongArray(ACQUIRE_BOUNDS.length + 1);
+
+        private final LongAdder acquireMicros = new LongAdder();
+
+        private final LongAccumulator maxAcquireMicros = new LongAccumulator(Math::max, 0);
+
+        private final LongAdder usages = new LongAdder();
+
+        private final LongAdder usageMillis = new LongAdder();
+
+        private final LongAdder timeouts = new LongAdder();
+
+        Tracker(String poolName, PoolStats poolStats) {
+            this.poolName = poolName;
+            this.poolStats = poolStats;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            long micros = elapsedAcquiredNanos / 1000;
+            int bucket = 0;
+
+            while (bucket < ACQUIRE_BOUNDS.length && micros > ACQUIRE_BOUNDS[bucket]) {
+                bucket++;
+            }
+
+            this.histogram.incrementAndGet(bucket);
+            this.acquireMicros.add(micros);
+            this.maxAcquireMicros.accumulate(micros);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            this.usages.increment();
+            this.usageMillis.add(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            this.timeouts.increment();
+        }
+
+        @Override
+        public void close() {
+            PoolMetrics.this.trackers.remove(this.poolName, this);
+        }
+
+        PoolStatsDTO getStats() {
+            PoolStatsDTO stats = new PoolStatsDTO(this.poolName, this.poolStats.getActiveConnections(),
+                    this.poolStats.getIdleConnections(), this.poolStats.getPendingThreads(),
+                    this.poolStats.getTotalConnections());
+
+            long[] counts = new long[this.histogram.length()];
+            long acquired = 0;
+
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = this.histogram.get(i);
+                acquired += counts[i];
+            }
+
+            long usages = this.usages.sum();
+
+            stats.setAcquired(acquired);
+            stats.setTimeouts(this.timeouts.sum());
+            stats.setMeanAcquireMicros(acquired == 0 ? 0 : (double) this.acquireMicros.sum() / acquired);
+            stats.setMaxAcquireMicros(this.maxAcquireMicros.get());
+            stats.setAcquireBounds(ACQUIRE_BOUNDS.clone());
+            stats.setAcquireHistogram(counts);
+            stats.setMeanUsageMillis(usages == 0 ? 0 : (double) this.usageMillis.sum() / usages);
+
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.excilys.persistence.pool;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.FactoryBean;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Creates one read only Hikari pool per replica url, with the settings of the pool of the primary.
+ *
+ * @author simon
+ */
+public class ReplicaPoolsFactoryBean implements FactoryBean<List<DataSource>>, DisposableBean {
+
+    private HikariConfig template;
+
+    private String urls = "";
+
+    private List<HikariDataSource> pools;
+
+    /**
+     * set the configuration of the primary pool, copied for each replica.
+     *
+     * @param template configuration of the primary pool
+     */
+    public void setTemplate(HikariConfig template) {
+        this.template = template;
+    }
+
+    /**
+     * set the urls of the replicas.
+     *
+     * @param urls jdbc urls separated by commas, empty when there is no replica
+     */
+    public void setUrls(String urls) {
+        this.urls = urls == null ? "" : urls;
+    }
+
+    @Override
+    public synchronized List<DataSource> getObject() {
+        if (this.pools == null) {
+            this.pools = new ArrayList<>();
+
+            for (String url : this.urls.split(",")) {
+                if (!url.trim().isEmpty()) {
+                    this.pools.add(new HikariDataSource(this.replicaConfig(url.trim(), this.pools.size())));
+                }
+            }
+        }
+
+        return Collections.unmodifiableList(this.pools);
+    }
+
+    private HikariConfig replicaConfig(String url, int index) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("replica-" + index);
+        config.setReadOnly(true);
+
+        if (this.template.getDataSourceClassName() != null) {
+            Properties properties = new Properties();
+            properties.putAll(this.template.getDataSourceProperties());
+            properties.setProperty("url", url);
+
+            config.setDataSourceClassName(this.template.getDataSourceClassName());
+            config.setDataSourceProperties(properties);
+        } else {
+            config.setJdbcUrl(url);
+            config.setUsername(this.template.getUsername());
+            config.setPassword(this.template.getPassword());
+        }
+
+        config.setMaximumPoolSize(this.template.getMaximumPoolSize());
+        config.setMinimumIdle(this.template.getMinimumIdle());
+        config.setConnectionTimeout(this.template.getConnectionTimeout());
+        config.setIdleTimeout(this.template.getIdleTimeout());
+        config.setMaxLifetime(this.template.getMaxLifetime());
+        config.setLeakDetectionThreshold(this.template.getLeakDetectionThreshold());
+        config.setMetricsTrackerFactory(this.template.getMetricsTrackerFactory());
+
+        return config;
+    }
+
+    @Override
+    public Class<?> getObjectType() {
+        return List.class;
+    }
+
+    @Override
+    public boolean isSingleton() {
+        return true;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (this.pools != null) {
+            for (HikariDataSource pool : this.pools) {
+                pool.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.excilys.persistence.pool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Datasource sending the read only transactions to the replicas, and everything else to the primary.
+ * <p>
+ * the replicas are used in turn. A replica that fails to give a connection is set aside until {@link #checkReplicas()}
+ * finds it valid again, and the read only transactions go to the primary when no replica is available. The read only
+ * flag of the transaction is only known once the transaction has started, so this datasource must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the connection is then taken on the first
+ * statement instead of at the beginning of the transaction.
+ *
+ * @author simon
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+
+    private final List<DataSource> replicas;
+
+    /**
+     * 1 when the replica at the same index is available, 0 otherwise.
+     */
+    private final AtomicIntegerArray available;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final int validationTimeout;
+
+    /**
+     * routing datasource constructor.
+     *
+     * @param primary           datasource of the writes
+     * @param replicas          datasources of the read only transactions, can be empty
+     * @param validationTimeout timeout of the validation of a replica connection, in seconds
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, int validationTimeout) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas);
+        this.available = new AtomicIntegerArray(this.replicas.size());
+        this.validationTimeout = validationTimeout;
+
+        for (int i = 0; i < this.replicas.size(); i++) {
+            this.available.set(i, 1);
+        }
+    }
+
+    /**
+     * opens a connection of a datasource.
+     */
+    @FunctionalInterface
+    private interface Opener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return this.route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return this.route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * get a connection from a replica for the read only transactions, from the primary otherwise.
+     *
+     * @param opener opens the connection of the chosen datasource
+     * @return connection
+     * @throws SQLException if the primary gives no connection
+     */
+    private Connection route(Opener opener) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Connection connection = this.getReplicaConnection(opener);
+
+            if (connection != null) {
+                return connection;
+            }
+        }
+
+        return opener.open(this.primary);
+    }
+
+    /**
+     * get a connection from the next available replica.
+     *
+     * @param opener opens the connection of the replica
+     * @return connection, null if no replica is available
+     */
+    private Connection getReplicaConnection(Opener opener) {
+        int size = this.replicas.size();
+
+        for (int tries = 0; tries < size; tries++) {
+            int i = Math.floorMod(this.next.getAndIncrement(), size);
+
+            if (this.available.get(i) == 1) {
+                try {
+                    return opener.open(this.replicas.get(i));
+                } catch (SQLException e) {
+                    this.LOGGER.warn("replica {} set aside, no connection", i, e);
+                    this.available.set(i, 0);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * validate a connection of each replica, and make available the ones that are valid.
+     */
+    public void checkReplicas() {
+        for (int i = 0; i < this.replicas.size(); i++) {
+            boolean valid;
+
+            try (Connection connection = this.replicas.get(i).getConnection()) {
+                valid = connection.isValid(this.validationTimeout);
+            } catch (SQLException e) {
+                valid = false;
+            }
+
+            if (this.available.getAndSet(i, valid ? 1 : 0) != (valid ? 1 : 0)) {
+                this.LOGGER.info("replica {} is {}", i, valid ? "available again" : "set aside");
+            }
+        }
+    }
+
+    /**
+     * get the number of replicas currently used.
+     *
+     * @return number of available replicas
+     */
+    public int getAvailableReplicas() {
+        int count = 0;
+
+        for (int i = 0; i < this.available.length(); i++) {
+            count += this.available.get(i);
+        }
+
+        return count;
+    }
+}
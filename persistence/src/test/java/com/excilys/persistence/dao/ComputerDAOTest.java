@@ -1,6 +1,8 @@
 package com.excilys.persistence.dao;
 
+import com.excilys.core.dto.ComputerDTO;
 import com.excilys.core.model.Computer;
+import com.excilys.core.model.Page;
 import com.excilys.core.model.PageParameters;
 import org.junit.Assert;
 import org.junit.Test;
@@ -8,8 +10,12 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @ContextConfiguration("classpath:applicationContext.xml")
@@ -19,6 +25,9 @@ public class ComputerDAOTest {
     @Autowired
     private ComputerDAO computerDAO;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Test
     public void testFindShouldHaveValidId() throws DAOException {
 
@@ -188,4 +197,43 @@ public class ComputerDAOTest {
             Assert.assertTrue(computers1.size() == (res - (2 * 7)));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindAllDTOMatchesTheEntities() throws DAOException {
+        for (PageParameters.Order order : PageParameters.Order.values()) {
+            final PageParameters page = new PageParameters.Builder().size(7).pageNumber(1).order(order).build();
+
+            final List<ComputerDTO> expected = new ArrayList<>();
+
+            for (Computer computer : this.computerDAO.findAllOffset(page)) {
+                expected.add(new ComputerDTO(computer));
+            }
+
+            Assert.assertEquals(expected, this.computerDAO.findAllDTOOffset(page));
+            Assert.assertEquals(expected, this.computerDAO.findAllDTODeferredJoin(page));
+        }
+    }
+
+    @Test
+    public void testDeleteAllPurgesTheIndex() throws DAOException {
+        final TransactionTemplate tx = new TransactionTemplate(this.transactionManager);
+        final String name = "purged" + System.nanoTime();
+        final PageParameters search = new PageParameters.Builder().size(10).pageNumber(0).search(name).build();
+
+        // create a computer, indexed when the transaction commits
+
+        final Long id = tx.execute(status -> this.computerDAO.create(
+                new Computer.ComputerBuilder().name(name).build()).getId());
+
+        Assert.assertEquals(Long.valueOf(1L), this.computerDAO.searchPageProjection(search).getTotalCount());
+
+        // bulk delete it, then search again
+
+        tx.execute(status -> this.computerDAO.deleteAll(Collections.singletonList(id)));
+
+        final Page<ComputerDTO> page = this.computerDAO.searchPageProjection(search);
+
+        Assert.assertEquals(Long.valueOf(0L), page.getTotalCount());
+        Assert.assertTrue(page.getList().isEmpty());
+    }
+}
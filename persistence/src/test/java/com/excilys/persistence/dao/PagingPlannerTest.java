@@ -0,0 +1,89 @@
+package com.excilys.persistence.dao;
+
+import com.excilys.core.model.PageParameters.Order;
+import com.excilys.persistence.dao.PagingPlanner.Plan;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PagingPlannerTest {
+
+    @Test
+    public void testInitialThreshold() {
+        PagingPlanner planner = new PagingPlanner(true, 1000, 32, 0.2);
+
+        Assert.assertEquals(Plan.OFFSET, planner.choose(Order.NAME, 1000));
+        Assert.assertEquals(Plan.DEFERRED_JOIN, planner.choose(Order.NAME, 1001));
+        Assert.assertEquals(-1, planner.getCrossover(Order.NAME));
+    }
+
+    @Test
+    public void testTriesTheOtherPlanBeforeChoosing() {
+        PagingPlanner planner = new PagingPlanner(true, 1000, 32, 0.2);
+
+        planner.record(Order.NAME, 100, Plan.OFFSET, 1000);
+
+        Assert.assertEquals(Plan.DEFERRED_JOIN, planner.choose(Order.NAME, 100));
+    }
+
+    @Test
+    public void testChoosesTheCheapestPlan() {
+        PagingPlanner planner = new PagingPlanner(true, 1000, 32, 0.2);
+
+        // small offsets: the offset is cheaper, even above the threshold
+        planner.record(Order.NAME, 2000, Plan.OFFSET, 1000);
+        planner.record(Order.NAME, 2000, Plan.DEFERRED_JOIN, 2000);
+        // large offsets: the deferred join is cheaper
+        planner.record(Order.NAME, 100000, Plan.OFFSET, 50000);
+        planner.record(Order.NAME, 100000, Plan.DEFERRED_JOIN, 5000);
+
+        Assert.assertEquals(Plan.OFFSET, planner.choose(Order.NAME, 2000));
+        Assert.assertEquals(Plan.DEFERRED_JOIN, planner.choose(Order.NAME, 100000));
+        Assert.assertEquals(65536, planner.getCrossover(Order.NAME));
+
+        // each sort column is measured separately
+        Assert.assertEquals(-1, planner.getCrossover(Order.INTRODUCED));
+    }
+
+    @Test
+    public void testExploresTheOtherPlan() {
+        PagingPlanner planner = new PagingPlanner(true, 1000, 4, 0.2);
+
+        planner.record(Order.NAME, 10, Plan.OFFSET, 1000);
+        planner.record(Order.NAME, 10, Plan.DEFERRED_JOIN, 2000);
+
+        int deferred = 0;
+
+        for (int i = 0; i < 8; i++) {
+            if (planner.choose(Order.NAME, 10) == Plan.DEFERRED_JOIN) {
+                deferred++;
+            }
+        }
+
+        Assert.assertEquals(2, deferred);
+    }
+
+    @Test
+    public void testFollowsTheMeasures() {
+        PagingPlanner planner = new PagingPlanner(true, 1000, 32, 0.5);
+
+        planner.record(Order.NAME, 10, Plan.OFFSET, 1000);
+        planner.record(Order.NAME, 10, Plan.DEFERRED_JOIN, 2000);
+        Assert.assertEquals(Plan.OFFSET, planner.choose(Order.NAME, 10));
+
+        // the offset gets slower: 1000 -> 2000 -> 2500
+        planner.record(Order.NAME, 10, Plan.OFFSET, 3000);
+        planner.record(Order.NAME, 10, Plan.OFFSET, 3000);
+        Assert.assertEquals(Plan.DEFERRED_JOIN, planner.choose(Order.NAME, 10));
+    }
+
+    @Test
+    public void testNotAdaptive() {
+        PagingPlanner planner = new PagingPlanner(false, 1000, 32, 0.2);
+
+        planner.record(Order.NAME, 100000, Plan.OFFSET, 1);
+        planner.record(Order.NAME, 100000, Plan.DEFERRED_JOIN, 1000);
+
+        Assert.assertEquals(Plan.DEFERRED_JOIN, planner.choose(Order.NAME, 100000));
+        Assert.assertEquals(-1, planner.getCrossover(Order.NAME));
+    }
+}
@@ -0,0 +1,61 @@
+package com.excilys.persistence.pool;
+
+import com.excilys.core.dto.PoolStatsDTO;
+import com.zaxxer.hikari.metrics.MetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class PoolMetricsTest {
+
+    private static PoolStats poolStats(int active, int idle, int pending) {
+        return new PoolStats(0) {
+            @Override
+            protected void update() {
+                this.activeConnections = active;
+                this.idleConnections = idle;
+                this.pendingThreads = pending;
+                this.totalConnections = active + idle;
+            }
+        };
+    }
+
+    @Test
+    public void testAcquireHistogram() {
+        PoolMetrics metrics = new PoolMetrics();
+        MetricsTracker tracker = metrics.create("primary", poolStats(3, 2, 1));
+
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MICROSECONDS.toNanos(5));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MICROSECONDS.toNanos(10));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.SECONDS.toNanos(2));
+        tracker.recordConnectionUsageMillis(4);
+        tracker.recordConnectionUsageMillis(6);
+
+        PoolStatsDTO stats = metrics.getStats().get(0);
+
+        Assert.assertEquals("primary", stats.getPool());
+        Assert.assertEquals(3, stats.getActive());
+        Assert.assertEquals(2, stats.getIdle());
+        Assert.assertEquals(1, stats.getPending());
+        Assert.assertEquals(5, stats.getTotal());
+        Assert.assertEquals(4, stats.getAcquired());
+        Assert.assertArrayEquals(new long[]{2, 0, 0, 1, 0, 0, 1}, stats.getAcquireHistogram());
+        Assert.assertEquals(2000000, stats.getMaxAcquireMicros());
+        Assert.assertEquals(5.0, stats.getMeanUsageMillis(), 0.001);
+    }
+
+    @Test
+    public void testClosedPoolIsRemoved() {
+        PoolMetrics metrics = new PoolMetrics();
+        MetricsTracker primary = metrics.create("primary", poolStats(0, 0, 0));
+        metrics.create("replica", poolStats(0, 0, 0));
+
+        primary.close();
+
+        Assert.assertEquals(1, metrics.getStats().size());
+        Assert.assertEquals("replica", metrics.getStats().get(0).getPool());
+    }
+}
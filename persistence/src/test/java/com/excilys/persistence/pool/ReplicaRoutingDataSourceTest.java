@@ -0,0 +1,160 @@
+package com.excilys.persistence.pool;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * two embedded databases stand in for the primary and the replica, each one knows its name.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+
+    private DataSource replica;
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists node (name varchar(20))");
+        jdbc.execute("delete from node");
+        jdbc.update("insert into node values (?)", name);
+
+        return dataSource;
+    }
+
+    /**
+     * replica that can be stopped.
+     */
+    private static class Switchable extends DelegatingDataSource {
+
+        private boolean up = true;
+
+        Switchable(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (!this.up) {
+                throw new SQLException("replica down");
+            }
+            return super.getConnection();
+        }
+    }
+
+    private static String node(DataSource routing, boolean readOnly) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        TransactionTemplate tmpl = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        tmpl.setReadOnly(readOnly);
+
+        return tmpl.execute(status -> new JdbcTemplate(dataSource).queryForObject("select name from node", String.class));
+    }
+
+    @Before
+    public void setUp() {
+        this.primary = database("primary");
+        this.replica = database("replica");
+    }
+
+    @Test
+    public void testReadOnlyGoesToReplica() {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(this.primary,
+                Collections.singletonList(this.replica), 1);
+
+        Assert.assertEquals("replica", node(routing, true));
+        Assert.assertEquals("primary", node(routing, false));
+    }
+
+    @Test
+    public void testWithoutReplica() {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(this.primary, Collections.emptyList(), 1);
+
+        Assert.assertEquals("primary", node(routing, true));
+    }
+
+    @Test
+    public void testRoundRobin() {
+        DataSource second = database("second");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(this.primary,
+                Arrays.asList(this.replica, second), 1);
+
+        Assert.assertEquals("replica", node(routing, true));
+        Assert.assertEquals("second", node(routing, true));
+        Assert.assertEquals("replica", node(routing, true));
+    }
+
+    @Test
+    public void testReplicaDownIsSetAside() {
+        Switchable first = new Switchable(database("first"));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(this.primary,
+                Arrays.asList(first, this.replica), 1);
+
+        first.up = false;
+
+        Assert.assertEquals("replica", node(routing, true));
+        Assert.assertEquals(1, routing.getAvailableReplicas());
+        Assert.assertEquals("replica", node(routing, true));
+
+        // still down
+        routing.checkReplicas();
+        Assert.assertEquals(1, routing.getAvailableReplicas());
+
+        first.up = true;
+        routing.checkReplicas();
+        Assert.assertEquals(2, routing.getAvailableReplicas());
+    }
+
+    @Test
+    public void testAllReplicasDown() {
+        Switchable down = new Switchable(this.replica);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(this.primary,
+                Collections.singletonList(down), 1);
+
+        down.up = false;
+
+        Assert.assertEquals("primary", node(routing, true));
+        Assert.assertEquals(0, routing.getAvailableReplicas());
+    }
+
+    @Test
+    public void testCredentialsAreRouted() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(this.primary,
+                Collections.singletonList(this.replica), 1);
+
+        Assert.assertEquals("primary", node(routing.getConnection("", "")));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            Assert.assertEquals("replica", node(routing.getConnection("", "")));
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    private static String node(Connection connection) throws SQLException {
+        try (Connection c = connection;
+             Statement statement = c.createStatement();
+             ResultSet rs = statement.executeQuery("select name from node")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
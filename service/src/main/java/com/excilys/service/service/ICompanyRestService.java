@@ -4,6 +4,7 @@ import com.excilys.core.model.Company;
 import com.excilys.core.model.PageParameters;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 
 public interface ICompanyRestService {
@@ -18,4 +19,59 @@ public interface ICompanyRestService {
     Company updateCompany(Company computer);
 
     void deleteCompany(long id);
+
+    /**
+     * asynchronous version of {@link #getList()}.
+     *
+     * @return all the companies
+     */
+    CompletableFuture<List<Company>> getListAsync();
+
+    /**
+     * asynchronous version of {@link #getList(PageParameters)}.
+     *
+     * @param params page to get
+     * @return companies of the page
+     */
+    CompletableFuture<List<Company>> getListAsync(PageParameters params);
+
+    /**
+     * asynchronous version of {@link #getCompanyById(long)}.
+     *
+     * @param id id of the company
+     * @return company, null if it does not exist
+     */
+    CompletableFuture<Company> getCompanyByIdAsync(long id);
+
+    /**
+     * get several companies, the requests being sent at once.
+     *
+     * @param ids ids of the companies
+     * @return companies in the order of the ids, null for the ones that do not exist
+     */
+    CompletableFuture<List<Company>> getCompaniesByIdAsync(List<Long> ids);
+
+    /**
+     * asynchronous version of {@link #createCompany(Company)}.
+     *
+     * @param company company to create
+     * @return created company
+     */
+    CompletableFuture<Company> createCompanyAsync(Company company);
+
+    /**
+     * asynchronous version of {@link #updateCompany(Company)}.
+     *
+     * @param company company to update
+     * @return updated company
+     */
+    CompletableFuture<Company> updateCompanyAsync(Company company);
+
+    /**
+     * asynchronous version of {@link #deleteCompany(long)}.
+     *
+     * @param id id of the company
+     * @return completed once the company is deleted
+     */
+    CompletableFuture<Void> deleteCompanyAsync(long id);
 }
@@ -1,6 +1,7 @@
 package com.excilys.service.service;
 
 
+import com.excilys.core.dto.CompanyDTO;
 import com.excilys.core.model.Company;
 import com.excilys.core.model.PageParameters;
 
@@ -43,6 +44,13 @@ public interface ICompanyService {
      */
     List<Company> getCompanies();
 
+    /**
+     * get the entire company list as dtos, sorted by name.
+     *
+     * @return list of company dtos
+     */
+    List<CompanyDTO> getCompanyDTOs();
+
     /**
      * get the number of companies.
      *
@@ -64,4 +72,26 @@ public interface ICompanyService {
      * @param company
      */
     void updateCompany(Company company);
+
+    /**
+     * get the entity tag of a company, which changes each time the company is modified.
+     *
+     * @param id id of the company
+     * @return weak entity tag
+     */
+    String getCompanyTag(long id);
+
+    /**
+     * get the entity tag of the lists of companies, which changes each time a company is written.
+     *
+     * @return weak entity tag
+     */
+    String getCompaniesTag();
+
+    /**
+     * get the date of the last write to the companies.
+     *
+     * @return date in milliseconds
+     */
+    long getCompaniesLastModified();
 }
@@ -1,9 +1,14 @@
 package com.excilys.service.service;
 
+import com.excilys.core.dto.ComputerDTO;
+import com.excilys.core.dto.ImportReportDTO;
 import com.excilys.core.model.Computer;
 import com.excilys.core.model.PageParameters;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface IComputerRestService {
     List<Computer> getList();
@@ -17,4 +22,86 @@ public interface IComputerRestService {
     Computer updateComputer(Computer computer);
 
     void deleteComputer(long id);
+
+    /**
+     * count the computers matching the search.
+     *
+     * @param params search (the other parameters are ignored)
+     * @return number of computers
+     */
+    long countComputers(PageParameters params);
+
+    /**
+     * export the computers matching the search, in the order of the parameters, as they are received.
+     *
+     * @param params search, order and direction (the page number and size are ignored)
+     * @param format "csv" or "ndjson"
+     * @param out    stream the export is copied to
+     * @return number of bytes copied
+     * @throws IOException if the stream can't be written
+     */
+    long exportComputers(PageParameters params, String format, OutputStream out) throws IOException;
+
+    /**
+     * import computers in one request, the server validating them.
+     *
+     * @param computers computers to import, their ids are ignored
+     * @return report of the import, the rows starting at 1 for the first computer of the list
+     */
+    CompletableFuture<ImportReportDTO> importComputersAsync(List<ComputerDTO> computers);
+
+    /**
+     * asynchronous version of {@link #getList()}.
+     *
+     * @return all the computers
+     */
+    CompletableFuture<List<Computer>> getListAsync();
+
+    /**
+     * asynchronous version of {@link #getList(PageParameters)}.
+     *
+     * @param params page to get
+     * @return computers of the page
+     */
+    CompletableFuture<List<Computer>> getListAsync(PageParameters params);
+
+    /**
+     * asynchronous version of {@link #getComputerById(long)}.
+     *
+     * @param id id of the computer
+     * @return computer, null if it does not exist
+     */
+    CompletableFuture<Computer> getComputerByIdAsync(long id);
+
+    /**
+     * get several computers, the requests being sent at once.
+     *
+     * @param ids ids of the computers
+     * @return computers in the order of the ids, null for the ones that do not exist
+     */
+    CompletableFuture<List<Computer>> getComputersByIdAsync(List<Long> ids);
+
+    /**
+     * asynchronous version of {@link #createComputer(Computer)}.
+     *
+     * @param computer computer to create
+     * @return created computer
+     */
+    CompletableFuture<Computer> createComputerAsync(Computer computer);
+
+    /**
+     * asynchronous version of {@link #updateComputer(Computer)}.
+     *
+     * @param computer computer to update
+     * @return updated computer
+     */
+    CompletableFuture<Computer> updateComputerAsync(Computer computer);
+
+    /**
+     * asynchronous version of {@link #deleteComputer(long)}.
+     *
+     * @param id id of the computer
+     * @return completed once the computer is deleted
+     */
+    CompletableFuture<Void> deleteComputerAsync(long id);
 }
@@ -1,10 +1,15 @@
 package com.excilys.service.service;
 
+import com.excilys.core.dto.ComputerDTO;
+import com.excilys.core.dto.ImportReportDTO;
+import com.excilys.core.dto.IndexStatusDTO;
 import com.excilys.core.model.Computer;
 import com.excilys.core.model.Page;
 import com.excilys.core.model.PageParameters;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IComputerService {
 
@@ -36,6 +41,28 @@ public interface IComputerService {
      */
     Computer createComputer(Computer computer);
 
+    /**
+     * add many computers to the database, with jdbc batches.
+     * <p>
+     * the rows are validated one by one: the invalid rows are reported and skipped, the valid ones are inserted by
+     * chunks, each in its own transaction. The ids of the rows are ignored.
+     *
+     * @param computers computers to add, read as they are inserted
+     * @return number of computers imported and rejected rows
+     */
+    ImportReportDTO importComputers(Iterator<ComputerDTO> computers);
+
+    /**
+     * read all the computers matching the search, in the order of the page parameters (the page number and size are
+     * ignored). The computers are given to the consumer as they are read, so the memory used doesn't depend on their
+     * number.
+     *
+     * @param page     search, order and direction
+     * @param consumer receives each computer
+     * @return number of computers exported
+     */
+    long exportComputers(PageParameters page, Consumer<ComputerDTO> consumer);
+
     /**
      * get computer by its id.
      *
@@ -60,6 +87,14 @@ public interface IComputerService {
      */
     long countComputers(PageParameters page);
 
+    /**
+     * get the number of computers of a company.
+     *
+     * @param companyId id of the company, null for the computers without company.
+     * @return number of computers
+     */
+    long countComputersByCompany(Long companyId);
+
     /**
      * returns the page of computer corresponding to the page parameters given.
      *
@@ -67,4 +102,43 @@ public interface IComputerService {
      * @return page of computers.
      */
     Page<Computer> getComputersPage(PageParameters param);
+
+    /**
+     * returns the page of computer dtos corresponding to the page parameters given.
+     * <p>
+     * when searching, the rows are read from the search index without loading the computers.
+     *
+     * @param param parameters for the query.
+     * @return page of computer dtos.
+     */
+    Page<ComputerDTO> getComputersDTOPage(PageParameters param);
+
+    /**
+     * get the progress of the search index build. Searches use sql until the index is ready.
+     *
+     * @return state of the search index
+     */
+    IndexStatusDTO getIndexStatus();
+
+    /**
+     * get the entity tag of a computer, which changes each time the computer or its company is modified.
+     *
+     * @param id id of the computer
+     * @return weak entity tag
+     */
+    String getComputerTag(long id);
+
+    /**
+     * get the entity tag of the lists of computers, which changes each time a computer or a company is written.
+     *
+     * @return weak entity tag
+     */
+    String getComputersTag();
+
+    /**
+     * get the date of the last write to the computers or the companies.
+     *
+     * @return date in milliseconds
+     */
+    long getComputersLastModified();
 }
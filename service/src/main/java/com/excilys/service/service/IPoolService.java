@@ -0,0 +1,15 @@
+package com.excilys.service.service;
+
+import com.excilys.core.dto.PoolStatsDTO;
+
+import java.util.List;
+
+public interface IPoolService {
+
+    /**
+     * get the statistics of the connection pools.
+     *
+     * @return connections in use, idle and waited for, and acquire durations of each pool
+     */
+    List<PoolStatsDTO> getPoolStats();
+}
@@ -0,0 +1,22 @@
+package com.excilys.service.service;
+
+import com.excilys.core.dto.TokenDTO;
+
+public interface ITokenService {
+
+    /**
+     * issue a signed token for an authenticated user.
+     *
+     * @param username name of the user
+     * @return the token and its expiration date
+     */
+    TokenDTO issue(String username);
+
+    /**
+     * check the signature and the expiration date of a token.
+     *
+     * @param token token issued by {@link #issue(String)}
+     * @return name of the user of the token, null if the token is invalid or expired
+     */
+    String verify(String token);
+}
@@ -1,6 +1,6 @@
 package com.excilys.service.service;
 
-
+import com.excilys.core.dto.CacheStatsDTO;
 import com.excilys.core.model.User;
 
 public interface IUserService {
@@ -11,4 +11,18 @@ public interface IUserService {
     User create(User user);
 
     void defaultValues();
+
+    /**
+     * get the statistics of the cache of the authenticated users.
+     *
+     * @return size, hits and misses of the cache
+     */
+    CacheStatsDTO getCacheStats();
+
+    /**
+     * get the statistics of the cache of the verified credentials.
+     *
+     * @return size, hits and misses of the cache
+     */
+    CacheStatsDTO getCredentialCacheStats();
 }
@@ -0,0 +1,44 @@
+package com.excilys.service.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Authentication provider skipping the password check of the credentials verified recently.
+ * <p>
+ * the first request of a client pays the cost of the password encoder, the following ones until the end of the time
+ * to live of {@link CredentialCache} cost a digest and a map lookup.
+ *
+ * @author simon
+ */
+public class CachingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    @Autowired
+    private CredentialCache credentialCache;
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        Object credentials = authentication.getCredentials();
+
+        if (username == null || credentials == null) {
+            return super.authenticate(authentication);
+        }
+
+        String password = credentials.toString();
+        UserDetails user = this.credentialCache.get(username, password);
+
+        if (user != null) {
+            return this.createSuccessAuthentication(user, authentication, user);
+        }
+
+        long version = this.credentialCache.version();
+        Authentication result = super.authenticate(authentication);
+        this.credentialCache.put(username, password, (UserDetails) result.getPrincipal(), version);
+
+        return result;
+    }
+}
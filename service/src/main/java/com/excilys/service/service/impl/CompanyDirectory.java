@@ -0,0 +1,143 @@
+package com.excilys.service.service.impl;
+
+import com.excilys.binding.mapper.ICompanyDirectory;
+import com.excilys.binding.mapper.impl.CompanyMapper;
+import com.excilys.core.dto.CompanyDTO;
+import com.excilys.core.model.Company;
+import com.excilys.persistence.dao.CompanyDAO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-through cache of all the companies, sorted by name.
+ * <p>
+ * the companies are loaded once and kept until a company is created, updated or deleted (once the transaction is
+ * committed). The dtos are built at load time so that the forms don't map the companies on each render. The companies
+ * are shared by all the threads: the callers get copies, which they can modify.
+ *
+ * @author simon
+ */
+@Component
+public class CompanyDirectory implements ICompanyDirectory {
+
+    @Autowired
+    private CompanyDAO companyDAO;
+
+    @Autowired
+    private CompanyMapper companyMapper;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * version of the cache, incremented by each invalidation. A snapshot loaded before an invalidation is not kept.
+     */
+    private long version;
+
+    @Override
+    public Company getCompany(Long id) {
+        Company company = this.get().byId.get(id);
+        return company == null ? null : copy(company);
+    }
+
+    /**
+     * get all the companies.
+     *
+     * @return copies of the companies, sorted by name
+     */
+    public List<Company> getCompanies() {
+        List<Company> companies = this.get().companies;
+        List<Company> copies = new ArrayList<>(companies.size());
+
+        for (Company company : companies) {
+            copies.add(copy(company));
+        }
+
+        return copies;
+    }
+
+    private static Company copy(Company company) {
+        return new Company(company.getId(), company.getName());
+    }
+
+    /**
+     * get all the companies as dtos.
+     *
+     * @return unmodifiable list of the dtos, sorted by name
+     */
+    public List<CompanyDTO> getCompanyDTOs() {
+        return this.get().dtos;
+    }
+
+    /**
+     * drop the companies, they will be reloaded on the next call.
+     */
+    public synchronized void invalidate() {
+        this.version++;
+        this.snapshot = null;
+    }
+
+    /**
+     * drop the companies once the current transaction is committed.
+     */
+    public void invalidateAfterCommit() {
+        TransactionHooks.afterCommit(this::invalidate);
+    }
+
+    private Snapshot get() {
+        Snapshot s = this.snapshot;
+
+        if (s == null) {
+            long v;
+            synchronized (this) {
+                v = this.version;
+            }
+
+            s = this.load();
+
+            synchronized (this) {
+                // a company was written while loading, don't keep what may be stale
+                if (v == this.version) {
+                    this.snapshot = s;
+                }
+            }
+        }
+
+        return s;
+    }
+
+    private Snapshot load() {
+        List<Company> companies = new ArrayList<>(TransactionHooks.onPrimary(this.txManager,
+                status -> this.companyDAO.findAll()));
+        companies.sort(Comparator.comparing(Company::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(Company::getId));
+
+        return new Snapshot(companies, this.companyMapper.toDTO(companies));
+    }
+
+    private static class Snapshot {
+        private final List<Company> companies;
+        private final List<CompanyDTO> dtos;
+        private final Map<Long, Company> byId;
+
+        Snapshot(List<Company> companies, List<CompanyDTO> dtos) {
+            this.companies = Collections.unmodifiableList(companies);
+            this.dtos = Collections.unmodifiableList(dtos);
+            this.byId = new HashMap<>();
+
+            for (Company company : companies) {
+                this.byId.put(company.getId(), company);
+            }
+        }
+    }
+}
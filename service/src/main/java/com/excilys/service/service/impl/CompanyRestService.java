@@ -6,34 +6,33 @@ import com.excilys.core.dto.CompanyDTO;
 import com.excilys.core.model.Company;
 import com.excilys.core.model.PageParameters;
 import com.excilys.service.service.ICompanyRestService;
-import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
-import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
-import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.client.Invocation;
 import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class CompanyRestService implements ICompanyRestService {
 
-    private final Logger LOGGER = LoggerFactory.getLogger(ComputerService.class);
+    private static final String PATH = "/company";
 
-    private static final String AUTH_USER = "user";
+    private static final GenericType<List<CompanyDTO>> LIST = new GenericType<List<CompanyDTO>>() {
+    };
 
-    private static final String AUTH_PASSWORD = "user";
+    private final Logger LOGGER = LoggerFactory.getLogger(CompanyRestService.class);
 
-    private static final String BASE_URL = "http://localhost:8080/cdb/rest/company";
-
-    private WebTarget target;
+    @Autowired
+    private RestClient restClient;
 
     @Autowired
     private CompanyMapper companyMapper;
@@ -41,82 +40,104 @@ public class CompanyRestService implements ICompanyRestService {
     @Autowired
     private PageParametersMapper pageParametersMapper;
 
-    public CompanyRestService() {
-        HttpAuthenticationFeature auth = HttpAuthenticationFeature
-                .universalBuilder()
-                .credentialsForBasic(AUTH_USER, AUTH_PASSWORD)
-                .build();
-
-        Client client = ClientBuilder.newClient().register(auth).register(JacksonJsonProvider.class);
-        target = client.target(BASE_URL);
-    }
-
     @Override
     public List<Company> getList() {
         this.LOGGER.debug("entering getList()");
+        return this.toCompanies(this.request("/").get());
+    }
 
-        Response response = target
-                .path("/")
-                .request(MediaType.APPLICATION_JSON)
-                .get();
+    @Override
+    public List<Company> getList(PageParameters params) {
+        this.LOGGER.debug("entering getList(params)");
+        return this.toCompanies(this.request("/page").post(Entity.json(pageParametersMapper.toDTO(params))));
+    }
 
-        return companyMapper.fromDTO(response.readEntity(new GenericType<List<CompanyDTO>>() {
-        }));
+    @Override
+    public Company getCompanyById(long id) {
+        this.LOGGER.debug("entering getCompanyById()");
+        return this.toCompany(this.request("/" + id).get());
     }
 
     @Override
-    public List<Company> getList(PageParameters params) {
-        this.LOGGER.debug("entering getList(params) {}", params);
+    public Company createCompany(Company company) {
+        this.LOGGER.debug("entering createCompany()");
+        return this.toCompany(this.request("/").post(Entity.json(companyMapper.toDTO(company))));
+    }
 
-        Response response = target
-                .path("/page")
-                .request(MediaType.APPLICATION_JSON)
-                .post(Entity.json(pageParametersMapper.toDTO(params)));
+    @Override
+    public Company updateCompany(Company company) {
+        this.LOGGER.debug("entering updateCompany()");
+        return this.toCompany(this.request("/" + company.getId()).put(Entity.json(companyMapper.toDTO(company))));
+    }
 
-        return companyMapper.fromDTO(response.readEntity(new GenericType<List<CompanyDTO>>() {
-        }));
+    @Override
+    public void deleteCompany(long id) {
+        this.LOGGER.debug("entering deleteCompany()");
+        RestClient.check(this.request("/" + id).delete());
     }
 
     @Override
-    public Company getCompanyById(long id) {
-        this.LOGGER.error("entering getCompanyById()");
+    public CompletableFuture<List<Company>> getListAsync() {
+        this.LOGGER.debug("entering getListAsync()");
+        return RestClient.async(cb -> this.request("/").async().get(cb), this::toCompanies);
+    }
 
-        Response response = target
-                .path("/" + id)
-                .request(MediaType.APPLICATION_JSON)
-                .get();
+    @Override
+    public CompletableFuture<List<Company>> getListAsync(PageParameters params) {
+        this.LOGGER.debug("entering getListAsync(params)");
+        return RestClient.async(cb -> this.request("/page").async()
+                .post(Entity.json(pageParametersMapper.toDTO(params)), cb), this::toCompanies);
+    }
 
-        return companyMapper.fromDTO(response.readEntity(CompanyDTO.class));
+    @Override
+    public CompletableFuture<Company> getCompanyByIdAsync(long id) {
+        this.LOGGER.debug("entering getCompanyByIdAsync()");
+        return RestClient.async(cb -> this.request("/" + id).async().get(cb), this::toCompany);
     }
 
     @Override
-    public Company createCompany(Company company) {
-        this.LOGGER.error("entering createCompany()");
+    public CompletableFuture<List<Company>> getCompaniesByIdAsync(List<Long> ids) {
+        this.LOGGER.debug("entering getCompaniesByIdAsync() {}", ids.size());
+        List<CompletableFuture<Company>> companies = new ArrayList<>(ids.size());
 
-        Response response = target
-                .path("/")
-                .request(MediaType.APPLICATION_JSON)
-                .post(Entity.json(companyMapper.toDTO(company)));
+        for (Long id : ids) {
+            companies.add(this.getCompanyByIdAsync(id));
+        }
 
-        return companyMapper.fromDTO(response.readEntity(CompanyDTO.class));
+        return RestClient.all(companies);
     }
 
     @Override
-    public Company updateCompany(Company company) {
-        this.LOGGER.error("entering updateCompany()");
-
-        Response response = target
-                .path("/" + company.getId())
-                .request(MediaType.APPLICATION_JSON)
-                .put(Entity.json(companyMapper.toDTO(company)));
+    public CompletableFuture<Company> createCompanyAsync(Company company) {
+        this.LOGGER.debug("entering createCompanyAsync()");
+        return RestClient.async(cb -> this.request("/").async()
+                .post(Entity.json(companyMapper.toDTO(company)), cb), this::toCompany);
+    }
 
-        return companyMapper.fromDTO(response.readEntity(CompanyDTO.class));
+    @Override
+    public CompletableFuture<Company> updateCompanyAsync(Company company) {
+        this.LOGGER.debug("entering updateCompanyAsync()");
+        return RestClient.async(cb -> this.request("/" + company.getId()).async()
+                .put(Entity.json(companyMapper.toDTO(company)), cb), this::toCompany);
     }
 
     @Override
-    public void deleteCompany(long id) {
-        this.LOGGER.error("entering deleteCompany()");
-        target.path("/" + id).request(MediaType.APPLICATION_JSON).delete();
+    public CompletableFuture<Void> deleteCompanyAsync(long id) {
+        this.LOGGER.debug("entering deleteCompanyAsync()");
+        return RestClient.async(cb -> this.request("/" + id).async().delete(cb), RestClient::check);
+    }
+
+    private Invocation.Builder request(String path) {
+        return this.restClient.target(PATH + path).request(MediaType.APPLICATION_JSON);
+    }
+
+    private List<Company> toCompanies(Response response) {
+        List<CompanyDTO> companies = RestClient.read(response, LIST);
+        return companies == null ? Collections.emptyList() : companyMapper.fromDTO(companies);
     }
 
+    private Company toCompany(Response response) {
+        CompanyDTO company = RestClient.read(response, CompanyDTO.class);
+        return company == null ? null : companyMapper.fromDTO(company);
+    }
 }
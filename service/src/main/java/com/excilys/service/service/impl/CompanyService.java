@@ -2,18 +2,23 @@ package com.excilys.service.service.impl;
 
 
 import com.excilys.binding.validation.ValidatorUtil;
+import com.excilys.core.dto.CompanyDTO;
 import com.excilys.core.model.Company;
 import com.excilys.core.model.PageParameters;
 import com.excilys.persistence.dao.CompanyDAO;
 import com.excilys.persistence.dao.ComputerDAO;
 import com.excilys.service.service.ICompanyService;
+import com.excilys.service.service.impl.DataVersions.Table;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 public class CompanyService implements ICompanyService {
@@ -29,12 +34,33 @@ public class CompanyService implements ICompanyService {
     @Autowired
     private ValidatorUtil validator;
 
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private ComputerCountCache countCache;
+
+    @Autowired
+    private SearchCountCache searchCountCache;
+
+    /**
+     * cache of all the companies.
+     */
+    @Autowired
+    private CompanyDirectory companyDirectory;
+
+    /**
+     * versions of the companies and the computers, used as entity tags by the rest api.
+     */
+    @Autowired
+    private DataVersions dataVersions;
+
     @Override
     @Transactional(readOnly = true)
     public Company getCompany(Long id) {
         this.LOGGER.debug("entering getCompany()");
         this.validator.validateId(id);
-        return this.companyDAO.find(id);
+        return this.companyDirectory.getCompany(id);
     }
 
     @Override
@@ -53,16 +79,25 @@ public class CompanyService implements ICompanyService {
         Company company = this.companyDAO.find(id);
 
         if (company != null) {
-            this.computerDAO.deleteByCompanyId(id);
+            this.countCache.deletedCompany(id, this.computerDAO.deleteByCompanyId(id));
             this.companyDAO.delete(company);
+            this.searchCountCache.invalidateAfterCommit();
+            this.companyDirectory.invalidateAfterCommit();
+            this.dataVersions.modifiedAfterCommit(Table.COMPANY, Collections.singletonList(id));
+            this.dataVersions.modifiedAllAfterCommit(Table.COMPUTER);
         }
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<Company> getCompanies() {
         this.LOGGER.debug("entering getCompanies()");
-        return this.companyDAO.findAll();
+        return this.companyDirectory.getCompanies();
+    }
+
+    @Override
+    public List<CompanyDTO> getCompanyDTOs() {
+        this.LOGGER.debug("entering getCompanyDTOs()");
+        return this.companyDirectory.getCompanyDTOs();
     }
 
     @Override
@@ -76,13 +111,56 @@ public class CompanyService implements ICompanyService {
     @Transactional
     public Company createCompany(Company company) {
         this.LOGGER.debug("entering createCompany()");
-        return this.companyDAO.create(company);
+        Company created = this.companyDAO.create(company);
+        this.companyDirectory.invalidateAfterCommit();
+        this.dataVersions.createdAfterCommit(Table.COMPANY);
+        return created;
     }
 
     @Override
     @Transactional
     public void updateCompany(Company company) {
         this.LOGGER.debug("entering updateCompany()");
+
+        Company previous = this.companyDAO.find(company.getId());
+        String previousName = previous == null ? null : previous.getName();
+
         this.companyDAO.update(company);
+
+        // the computers keep a copy of the name of their company, used to sort them
+        if ((previous != null) && !Objects.equals(previousName, company.getName())) {
+            this.computerDAO.renameCompany(company.getId(), company.getName());
+            this.dataVersions.modifiedAllAfterCommit(Table.COMPUTER);
+
+            // in a new transaction, the persistence context of this one is left as it is
+            Long id = company.getId();
+            TransactionHooks.afterCommit(() -> {
+                try {
+                    TransactionHooks.onPrimary(this.txManager, status -> this.computerDAO.indexByCompanyId(id));
+                } catch (RuntimeException e) {
+                    // the company is modified since the last indexing, its computers are caught up at the next start
+                    this.LOGGER.warn("could not index the computers of the company {}", id, e);
+                }
+            });
+        }
+
+        this.searchCountCache.invalidateAfterCommit();
+        this.companyDirectory.invalidateAfterCommit();
+        this.dataVersions.modifiedAfterCommit(Table.COMPANY, Collections.singletonList(company.getId()));
+    }
+
+    @Override
+    public String getCompanyTag(long id) {
+        return this.dataVersions.getTag(Table.COMPANY, id);
+    }
+
+    @Override
+    public String getCompaniesTag() {
+        return this.dataVersions.getTag(Table.COMPANY);
+    }
+
+    @Override
+    public long getCompaniesLastModified() {
+        return this.dataVersions.getLastModified(Table.COMPANY);
     }
 }
@@ -0,0 +1,318 @@
+package com.excilys.service.service.impl;
+
+import com.excilys.core.model.Company;
+import com.excilys.core.model.Computer;
+import com.excilys.persistence.dao.ComputerDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache for the number of computers in the database, globally and per company.
+ * <p>
+ * The counts are loaded once from the database, then adjusted by the services each time computers are created or
+ * deleted. The adjustments are only applied once the transaction is committed, so a rollback doesn't leave the cache
+ * wrong. The counts are periodically reconciled against the database in case something was missed (writes made
+ * outside of the application, adjustment racing with the initial load..).
+ *
+ * @author simon
+ */
+@Component
+public class ComputerCountCache {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(ComputerCountCache.class);
+
+    @Autowired
+    private ComputerDAO computerDAO;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private final Object lock = new Object();
+
+    /**
+     * total number of computers, null until loaded.
+     */
+    private volatile AtomicLong total;
+
+    /**
+     * number of computers per company id, null until loaded.
+     */
+    private volatile Map<Long, AtomicLong> byCompany;
+
+    /**
+     * adjustments committed during a reconciliation, null otherwise. Guarded by the lock.
+     */
+    private Pending pending;
+
+    /**
+     * get the total number of computers.
+     *
+     * @return number of computers
+     */
+    public long count() {
+        AtomicLong t = this.total;
+
+        if (t == null) {
+            synchronized (this.lock) {
+                if (this.total == null) {
+                    this.total = new AtomicLong(TransactionHooks.onPrimary(this.txManager,
+                            status -> this.computerDAO.count()));
+                }
+                t = this.total;
+            }
+        }
+
+        return t.get();
+    }
+
+    /**
+     * get the number of computers of a company.
+     *
+     * @param companyId id of the company (null for the computers without company)
+     * @return number of computers
+     */
+    public long count(Long companyId) {
+        Map<Long, AtomicLong> m = this.byCompany;
+
+        if (m == null) {
+            synchronized (this.lock) {
+                if (this.byCompany == null) {
+                    this.byCompany = this.load(TransactionHooks.onPrimary(this.txManager,
+                            status -> this.computerDAO.countByCompany()));
+                }
+                m = this.byCompany;
+            }
+        }
+
+        AtomicLong c = m.get(this.key(companyId));
+        return c == null ? 0 : c.get();
+    }
+
+    /**
+     * a computer was created in the current transaction.
+     *
+     * @param company company of the computer
+     */
+    public void created(Company company) {
+        Long companyId = company == null ? null : company.getId();
+        TransactionHooks.afterCommit(() -> {
+            this.add(1);
+            this.add(companyId, 1);
+        });
+    }
+
+    /**
+     * computers were created in the current transaction.
+     *
+     * @param computers computers created
+     */
+    public void createdMany(List<Computer> computers) {
+        Map<Long, Long> perCompany = new HashMap<>();
+
+        for (Computer computer : computers) {
+            Long companyId = computer.getCompany() == null ? null : computer.getCompany().getId();
+            perCompany.merge(companyId, 1L, Long::sum);
+        }
+
+        long created = computers.size();
+        TransactionHooks.afterCommit(() -> {
+            this.add(created);
+            perCompany.forEach(this::add);
+        });
+    }
+
+    /**
+     * a computer was deleted in the current transaction.
+     *
+     * @param company company of the computer
+     */
+    public void deleted(Company company) {
+        Long companyId = company == null ? null : company.getId();
+        TransactionHooks.afterCommit(() -> {
+            this.add(-1);
+            this.add(companyId, -1);
+        });
+    }
+
+    /**
+     * a computer changed company in the current transaction.
+     *
+     * @param from previous company id
+     * @param to   new company id
+     */
+    public void moved(Long from, Long to) {
+        if (this.key(from).equals(this.key(to))) {
+            return;
+        }
+
+        TransactionHooks.afterCommit(() -> {
+            this.add(from, -1);
+            this.add(to, 1);
+        });
+    }
+
+    /**
+     * computers were deleted by id in the current transaction, without knowing their companies.
+     * <p>
+     * the global count is adjusted, the counts per company will be reloaded.
+     *
+     * @param affected number of computers deleted
+     */
+    public void deletedMany(long affected) {
+        TransactionHooks.afterCommit(() -> {
+            this.add(-affected);
+            this.dropByCompany();
+        });
+    }
+
+    /**
+     * all the computers of a company were deleted in the current transaction.
+     *
+     * @param companyId id of the company
+     * @param affected  number of computers deleted
+     */
+    public void deletedCompany(Long companyId, long affected) {
+        TransactionHooks.afterCommit(() -> {
+            this.add(-affected);
+            this.removeCompany(companyId);
+        });
+    }
+
+    /**
+     * reload the counts from the database.
+     */
+    @Scheduled(fixedDelayString = "${count.reconcile.delay:600000}", initialDelayString = "${count.reconcile.delay:600000}")
+    public void reconcile() {
+        // nothing loaded yet, nothing to reconcile
+        if (this.total == null && this.byCompany == null) {
+            return;
+        }
+
+        // the adjustments committed while the counts are read are recorded, then replayed on the counts read
+        synchronized (this.lock) {
+            this.pending = new Pending();
+        }
+
+        try {
+            TransactionHooks.onPrimary(this.txManager, status -> {
+                long count = this.computerDAO.count();
+                Map<Long, Long> counts = this.computerDAO.countByCompany();
+
+                synchronized (this.lock) {
+                    Pending p = this.pending;
+                    Map<Long, AtomicLong> m = p.byCompanyDropped ? null : this.load(counts);
+
+                    if (m != null) {
+                        p.byCompany.forEach((k, v) -> m.computeIfAbsent(k, key -> new AtomicLong()).addAndGet(v));
+                        p.removed.forEach(m::remove);
+                    }
+
+                    AtomicLong t = this.total;
+                    if (t != null && t.get() != count + p.total) {
+                        this.LOGGER.warn("computer count was {} instead of {}", t.get(), count + p.total);
+                    }
+
+                    this.total = new AtomicLong(count + p.total);
+                    this.byCompany = m;
+                }
+
+                return null;
+            });
+        } finally {
+            synchronized (this.lock) {
+                this.pending = null;
+            }
+        }
+    }
+
+    /**
+     * forget all the counts, they will be reloaded on the next call.
+     */
+    public void invalidate() {
+        synchronized (this.lock) {
+            this.total = null;
+            this.byCompany = null;
+        }
+    }
+
+    private void add(long delta) {
+        synchronized (this.lock) {
+            AtomicLong t = this.total;
+            if (t != null) {
+                t.addAndGet(delta);
+            }
+
+            if (this.pending != null) {
+                this.pending.total += delta;
+            }
+        }
+    }
+
+    private void add(Long companyId, long delta) {
+        synchronized (this.lock) {
+            Map<Long, AtomicLong> m = this.byCompany;
+            if (m != null) {
+                m.computeIfAbsent(this.key(companyId), k -> new AtomicLong()).addAndGet(delta);
+            }
+
+            if (this.pending != null) {
+                this.pending.byCompany.merge(this.key(companyId), delta, Long::sum);
+            }
+        }
+    }
+
+    private void dropByCompany() {
+        synchronized (this.lock) {
+            this.byCompany = null;
+
+            if (this.pending != null) {
+                this.pending.byCompanyDropped = true;
+            }
+        }
+    }
+
+    private void removeCompany(Long companyId) {
+        synchronized (this.lock) {
+            Map<Long, AtomicLong> m = this.byCompany;
+            if (m != null) {
+                m.remove(this.key(companyId));
+            }
+
+            if (this.pending != null) {
+                this.pending.removed.add(this.key(companyId));
+            }
+        }
+    }
+
+    private Long key(Long companyId) {
+        return companyId == null ? ComputerDAO.NO_COMPANY : companyId;
+    }
+
+    private Map<Long, AtomicLong> load(Map<Long, Long> counts) {
+        Map<Long, AtomicLong> m = new ConcurrentHashMap<>();
+        counts.forEach((k, v) -> m.put(k, new AtomicLong(v)));
+        return m;
+    }
+
+    /**
+     * adjustments recorded while the counts are reloaded.
+     */
+    private static class Pending {
+        private long total;
+        private final Map<Long, Long> byCompany = new HashMap<>();
+        private final Set<Long> removed = new HashSet<>();
+        private boolean byCompanyDropped;
+    }
+}
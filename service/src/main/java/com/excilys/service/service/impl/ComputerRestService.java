@@ -3,37 +3,43 @@ package com.excilys.service.service.impl;
 import com.excilys.binding.mapper.impl.ComputerMapper;
 import com.excilys.binding.mapper.impl.PageParametersMapper;
 import com.excilys.core.dto.ComputerDTO;
+import com.excilys.core.dto.ImportReportDTO;
+import com.excilys.core.dto.PageParametersDTO;
 import com.excilys.core.model.Computer;
 import com.excilys.core.model.PageParameters;
 import com.excilys.service.service.IComputerRestService;
-import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
-import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ComputerRestService implements IComputerRestService {
 
-    private final Logger LOGGER = LoggerFactory.getLogger(ComputerService.class);
+    private static final String PATH = "/computer";
 
-    private static final String AUTH_USER = "user";
+    private static final GenericType<List<ComputerDTO>> LIST = new GenericType<List<ComputerDTO>>() {
+    };
 
-    private static final String AUTH_PASSWORD = "user";
+    private final Logger LOGGER = LoggerFactory.getLogger(ComputerRestService.class);
 
-    private static final String BASE_URL = "http://localhost:8080/cdb/rest/computer";
-
-    private WebTarget target;
+    @Autowired
+    private RestClient restClient;
 
     @Autowired
     private ComputerMapper computerMapper;
@@ -41,81 +47,155 @@ public class ComputerRestService implements IComputerRestService {
     @Autowired
     private PageParametersMapper pageParametersMapper;
 
-    public ComputerRestService() {
-        HttpAuthenticationFeature auth = HttpAuthenticationFeature
-                .universalBuilder()
-                .credentialsForBasic(AUTH_USER, AUTH_PASSWORD)
-                .build();
-
-        Client client = ClientBuilder.newClient().register(auth).register(JacksonJsonProvider.class);
-        target = client.target(BASE_URL);
-    }
-
     @Override
     public List<Computer> getList() {
         this.LOGGER.debug("entering getList()");
-
-        Response response = target
-                .path("/")
-                .request(MediaType.APPLICATION_JSON)
-                .get();
-
-        return computerMapper.fromDTO(response.readEntity(new GenericType<List<ComputerDTO>>() {
-        }));
+        return this.toComputers(this.request("/").get());
     }
 
     @Override
     public List<Computer> getList(PageParameters params) {
         this.LOGGER.debug("entering getList(params)");
-
-        Response response = target
-                .path("/page")
-                .request(MediaType.APPLICATION_JSON)
-                .post(Entity.json(pageParametersMapper.toDTO(params)));
-
-        return computerMapper.fromDTO(response.readEntity(new GenericType<List<ComputerDTO>>() {
-        }));
+        return this.toComputers(this.request("/page").post(Entity.json(pageParametersMapper.toDTO(params))));
     }
 
     @Override
     public Computer getComputerById(long id) {
         this.LOGGER.debug("entering getComputerById()");
-
-        Response response = target
-                .path("/" + id)
-                .request(MediaType.APPLICATION_JSON)
-                .get();
-
-        return computerMapper.fromDTO(response.readEntity(ComputerDTO.class));
+        return this.toComputer(this.request("/" + id).get());
     }
 
     @Override
     public Computer createComputer(Computer computer) {
         this.LOGGER.debug("entering createComputer()");
-
-        Response response = target
-                .path("/")
-                .request(MediaType.APPLICATION_JSON)
-                .post(Entity.json(computerMapper.toDTO(computer)));
-
-        return computerMapper.fromDTO(response.readEntity(ComputerDTO.class));
+        return this.toComputer(this.request("/").post(Entity.json(computerMapper.toDTO(computer))));
     }
 
     @Override
     public Computer updateComputer(Computer computer) {
         this.LOGGER.debug("entering updateComputer()");
-
-        Response response = target
-                .path("/" + computer.getId())
-                .request(MediaType.APPLICATION_JSON)
-                .put(Entity.json(computerMapper.toDTO(computer)));
-
-        return computerMapper.fromDTO(response.readEntity(ComputerDTO.class));
+        return this.toComputer(this.request("/" + computer.getId()).put(Entity.json(computerMapper.toDTO(computer))));
     }
 
     @Override
     public void deleteComputer(long id) {
         this.LOGGER.debug("entering deleteComputer()");
-        target.path("/" + id).request(MediaType.APPLICATION_JSON).delete();
+        RestClient.check(this.request("/" + id).delete());
+    }
+
+    @Override
+    public long countComputers(PageParameters params) {
+        this.LOGGER.debug("entering countComputers()");
+        Response response = this.query("/count", params).request(MediaType.APPLICATION_JSON).get();
+        Long count = RestClient.read(response, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public long exportComputers(PageParameters params, String format, OutputStream out) throws IOException {
+        this.LOGGER.debug("entering exportComputers() {}", format);
+        Response response = this.query("/export", params).queryParam("format", format).request().get();
+
+        if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+            response.close();
+            throw new WebApplicationException(response);
+        }
+
+        long copied = 0;
+        byte[] buffer = new byte[8192];
+
+        try (InputStream in = response.readEntity(InputStream.class)) {
+            for (int read; (read = in.read(buffer)) >= 0; ) {
+                out.write(buffer, 0, read);
+                copied += read;
+            }
+        }
+
+        out.flush();
+        return copied;
+    }
+
+    @Override
+    public CompletableFuture<ImportReportDTO> importComputersAsync(List<ComputerDTO> computers) {
+        this.LOGGER.debug("entering importComputersAsync() {}", computers.size());
+        return RestClient.async(cb -> this.request("/batch").async().post(Entity.json(computers), cb),
+                response -> RestClient.read(response, ImportReportDTO.class));
+    }
+
+    @Override
+    public CompletableFuture<List<Computer>> getListAsync() {
+        this.LOGGER.debug("entering getListAsync()");
+        return RestClient.async(cb -> this.request("/").async().get(cb), this::toComputers);
+    }
+
+    @Override
+    public CompletableFuture<List<Computer>> getListAsync(PageParameters params) {
+        this.LOGGER.debug("entering getListAsync(params)");
+        return RestClient.async(cb -> this.request("/page").async()
+                .post(Entity.json(pageParametersMapper.toDTO(params)), cb), this::toComputers);
+    }
+
+    @Override
+    public CompletableFuture<Computer> getComputerByIdAsync(long id) {
+        this.LOGGER.debug("entering getComputerByIdAsync()");
+        return RestClient.async(cb -> this.request("/" + id).async().get(cb), this::toComputer);
+    }
+
+    @Override
+    public CompletableFuture<List<Computer>> getComputersByIdAsync(List<Long> ids) {
+        this.LOGGER.debug("entering getComputersByIdAsync() {}", ids.size());
+        List<CompletableFuture<Computer>> computers = new ArrayList<>(ids.size());
+
+        for (Long id : ids) {
+            computers.add(this.getComputerByIdAsync(id));
+        }
+
+        return RestClient.all(computers);
+    }
+
+    @Override
+    public CompletableFuture<Computer> createComputerAsync(Computer computer) {
+        this.LOGGER.debug("entering createComputerAsync()");
+        return RestClient.async(cb -> this.request("/").async()
+                .post(Entity.json(computerMapper.toDTO(computer)), cb), this::toComputer);
+    }
+
+    @Override
+    public CompletableFuture<Computer> updateComputerAsync(Computer computer) {
+        this.LOGGER.debug("entering updateComputerAsync()");
+        return RestClient.async(cb -> this.request("/" + computer.getId()).async()
+                .put(Entity.json(computerMapper.toDTO(computer)), cb), this::toComputer);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteComputerAsync(long id) {
+        this.LOGGER.debug("entering deleteComputerAsync()");
+        return RestClient.async(cb -> this.request("/" + id).async().delete(cb), RestClient::check);
+    }
+
+    private Invocation.Builder request(String path) {
+        return this.restClient.target(PATH + path).request(MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * target of a resource with the search, order and direction of the parameters as query parameters.
+     */
+    private WebTarget query(String path, PageParameters params) {
+        PageParametersDTO dto = pageParametersMapper.toDTO(params);
+
+        return this.restClient.target(PATH + path)
+                .queryParam("search", dto.getSearch())
+                .queryParam("order", dto.getOrder())
+                .queryParam("direction", dto.getDirection());
+    }
+
+    private List<Computer> toComputers(Response response) {
+        List<ComputerDTO> computers = RestClient.read(response, LIST);
+        return computers == null ? Collections.emptyList() : computerMapper.fromDTO(computers);
+    }
+
+    private Computer toComputer(Response response) {
+        ComputerDTO computer = RestClient.read(response, ComputerDTO.class);
+        return computer == null ? null : computerMapper.fromDTO(computer);
     }
 }
@@ -1,45 +1,112 @@
 package com.excilys.service.service.impl;
 
+import com.excilys.binding.mapper.ICompanyDirectory;
+import com.excilys.binding.mapper.impl.ComputerMapper;
+import com.excilys.binding.validation.ValidatorException;
 import com.excilys.binding.validation.ValidatorUtil;
+import com.excilys.core.dto.ComputerDTO;
+import com.excilys.core.dto.ImportErrorDTO;
+import com.excilys.core.dto.ImportReportDTO;
+import com.excilys.core.dto.IndexStatusDTO;
 import com.excilys.core.model.Computer;
 import com.excilys.core.model.Page;
+import com.excilys.core.model.PageCursor;
 import com.excilys.core.model.PageParameters;
+import com.excilys.core.model.PageParameters.CountStrategy;
+import com.excilys.core.model.PageParameters.Order;
 import com.excilys.persistence.dao.ComputerDAO;
 import com.excilys.service.service.IComputerService;
+import com.excilys.service.service.impl.DataVersions.Table;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
-import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.annotation.PostConstruct;
-import java.io.IOException;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 @Service
 public class ComputerService implements IComputerService {
 
     private final Logger LOGGER = LoggerFactory.getLogger(ComputerService.class);
 
-    @Autowired
-    protected PlatformTransactionManager txManager;
-
     @Autowired
     private ComputerDAO computerDAO;
 
     @Autowired
     private ValidatorUtil validator;
 
+    @Autowired
+    private ComputerMapper computerMapper;
+
+    /**
+     * cache for the number of computers in the database, so we don't need a count(*) on each page.
+     */
+    @Autowired
+    private ComputerCountCache countCache;
+
     /**
-     * cache for the total number of computers in the database.
-     * TODO check if it's still necessary to do it manually now that we use hibernate.
+     * cache for the number of computers matching a search.
      */
-    private AtomicLong count;
+    @Autowired
+    private SearchCountCache searchCountCache;
+
+    /**
+     * the search falls back to sql while the index is being built.
+     */
+    @Autowired
+    private SearchIndexer searchIndexer;
+
+    @Autowired
+    private ICompanyDirectory companyDirectory;
+
+    /**
+     * versions of the computers, used as entity tags by the rest api.
+     */
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    /**
+     * number of computers per jdbc batch, same as hibernate.jdbc.batch_size.
+     */
+    @Value("${jdbc.batch.size:50}")
+    private int batchSize;
+
+    /**
+     * number of computers imported per transaction.
+     */
+    @Value("${import.chunk.size:1000}")
+    private int chunkSize;
+
+    /**
+     * number of rejected rows detailed in an import report.
+     */
+    @Value("${import.errors.max:1000}")
+    private int maxErrors;
+
+    /**
+     * jdbc fetch size of the exports, Integer.MIN_VALUE streams the rows with mysql.
+     */
+    @Value("${export.fetch.size:-2147483648}")
+    private int exportFetchSize;
+
+    /**
+     * number of documents read at once by the exports of a search.
+     */
+    @Value("${export.search.fetch.size:1000}")
+    private int exportSearchFetchSize;
 
     @Override
     @Transactional
@@ -51,7 +118,9 @@ public class ComputerService implements IComputerService {
 
         if (computer != null) {
             this.computerDAO.delete(computer);
-            this.count.decrementAndGet();
+            this.countCache.deleted(computer.getCompany());
+            this.searchCountCache.invalidateAfterCommit();
+            this.dataVersions.modifiedAfterCommit(Table.COMPUTER, Collections.singletonList(id));
         }
     }
 
@@ -59,7 +128,12 @@ public class ComputerService implements IComputerService {
     @Transactional
     public void deleteComputers(List<Long> ids) {
         this.LOGGER.debug("entering deleteComputers(List<Long>)");
-        this.computerDAO.deleteAll(ids);
+
+        if (!ids.isEmpty()) {
+            this.countCache.deletedMany(this.computerDAO.deleteAll(ids));
+            this.searchCountCache.invalidateAfterCommit();
+            this.dataVersions.modifiedAfterCommit(Table.COMPUTER, new ArrayList<>(ids));
+        }
     }
 
     @Override
@@ -67,7 +141,18 @@ public class ComputerService implements IComputerService {
     public void updateComputer(Computer computer) {
         this.LOGGER.debug("entering updateComputer()");
         this.validator.validateComputer(computer);
+
+        // the previous version is needed anyway by the merge, it will come from the persistence context.
+        Computer previous = this.computerDAO.find(computer.getId());
+        Long previousCompanyId = previous == null || previous.getCompany() == null ? null : previous.getCompany().getId();
+
         this.computerDAO.update(computer);
+        this.searchCountCache.invalidateAfterCommit();
+        this.dataVersions.modifiedAfterCommit(Table.COMPUTER, Collections.singletonList(computer.getId()));
+
+        if (previous != null) {
+            this.countCache.moved(previousCompanyId, computer.getCompany() == null ? null : computer.getCompany().getId());
+        }
     }
 
     @Override
@@ -77,12 +162,112 @@ public class ComputerService implements IComputerService {
         this.validator.validateComputer(computer);
 
         Computer c = this.computerDAO.create(computer);
+        this.countCache.created(c.getCompany());
+        this.searchCountCache.invalidateAfterCommit();
+        this.dataVersions.createdAfterCommit(Table.COMPUTER);
+
+        return c;
+    }
+
+    @Override
+    public ImportReportDTO importComputers(Iterator<ComputerDTO> computers) {
+        this.LOGGER.debug("entering importComputers()");
+
+        ImportReportDTO report = new ImportReportDTO();
+        List<Computer> chunk = new ArrayList<>(this.chunkSize);
+        List<Long> rows = new ArrayList<>(this.chunkSize);
+
+        for (long row = 1; ; row++) {
+            ComputerDTO dto;
+
+            try {
+                if (!computers.hasNext()) {
+                    break;
+                }
+                dto = computers.next();
+            } catch (RuntimeException e) {
+                // malformed input, the following rows can't be found
+                this.reject(report, row, "unreadable row, import stopped : " + e.getMessage());
+                break;
+            }
+
+            try {
+                Computer computer = this.computerMapper.fromDTO(dto);
+                computer.setId(null);
+                this.validator.validateComputer(computer);
+
+                // an unknown company would make the whole chunk fail on the foreign key
+                if (computer.getCompany() != null
+                        && this.companyDirectory.getCompany(computer.getCompany().getId()) == null) {
+                    throw new ValidatorException("Unknown company : " + computer.getCompany().getId());
+                }
 
-        if (this.count != null) {
-            this.count.incrementAndGet();
+                chunk.add(computer);
+                rows.add(row);
+            } catch (ValidatorException | DateTimeParseException | NumberFormatException e) {
+                this.reject(report, row, e.getMessage());
+            }
+
+            if (chunk.size() == this.chunkSize) {
+                this.insert(chunk, rows, report);
+            }
         }
 
-        return c;
+        this.insert(chunk, rows, report);
+
+        return report;
+    }
+
+    /**
+     * insert a chunk of valid computers in its own transaction, so that the persistence context and the pending index
+     * updates stay bounded. If the chunk fails, all its rows are rejected.
+     */
+    private void insert(List<Computer> chunk, List<Long> rows, ImportReportDTO report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        try {
+            new TransactionTemplate(this.txManager).execute(status -> {
+                this.computerDAO.createAll(chunk, this.batchSize);
+                this.countCache.createdMany(chunk);
+                this.searchCountCache.invalidateAfterCommit();
+                this.dataVersions.createdAfterCommit(Table.COMPUTER);
+                return null;
+            });
+
+            report.setImported(report.getImported() + chunk.size());
+        } catch (RuntimeException e) {
+            this.LOGGER.warn("could not import rows {} to {}", rows.get(0), rows.get(rows.size() - 1), e);
+
+            for (Long row : rows) {
+                this.reject(report, row, "not inserted : " + e.getMessage());
+            }
+        }
+
+        chunk.clear();
+        rows.clear();
+    }
+
+    private void reject(ImportReportDTO report, long row, String message) {
+        report.setRejected(report.getRejected() + 1);
+
+        if (report.getErrors().size() < this.maxErrors) {
+            report.getErrors().add(new ImportErrorDTO(row, message));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportComputers(PageParameters page, Consumer<ComputerDTO> consumer) {
+        this.LOGGER.debug("entering exportComputers()");
+        this.validator.validatePageParameters(page);
+
+        if (!page.getSearch().isEmpty() && this.searchIndexer.isReady()) {
+            return this.computerDAO.scrollSearch(page, this.exportSearchFetchSize, consumer);
+        } else {
+            return this.computerDAO.scroll(page, this.exportFetchSize, consumer);
+        }
     }
 
     @Override
@@ -98,6 +283,11 @@ public class ComputerService implements IComputerService {
     public List<Computer> getComputers(PageParameters page) {
         this.LOGGER.debug("entering getComputers(page)");
         this.validator.validatePageParameters(page);
+
+        if (!page.getSearch().isEmpty() && !this.searchIndexer.isReady()) {
+            return this.computerDAO.searchPageLike(page).getList();
+        }
+
         return this.computerDAO.findAll(page);
     }
 
@@ -106,21 +296,114 @@ public class ComputerService implements IComputerService {
     public Page<Computer> getComputersPage(PageParameters param) {
         this.LOGGER.debug("entering getComputersPage()");
         this.validator.validatePageParameters(param);
+        // the lucene search returns the hits and their total in a single query
+        if (!param.getSearch().isEmpty()) {
+            Page<Computer> page = this.searchIndexer.isReady() ? this.computerDAO.searchPage(param)
+                    : this.computerDAO.searchPageLike(param);
+            page.setCountStrategy(CountStrategy.EXACT);
+            return page;
+        }
+
         List<Computer> computers = this.computerDAO.findAll(param);
 
+        return this.toPage(computers, param,
+                (computer, backward) -> PageCursor.of(computer, param.getOrder(), backward));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ComputerDTO> getComputersDTOPage(PageParameters param) {
+        this.LOGGER.debug("entering getComputersDTOPage()");
+
+        if (param.getSearch().isEmpty()) {
+            this.validator.validatePageParameters(param);
+
+            // the columns of the list are read directly into the dtos, no entity is loaded
+            return this.toPage(this.computerDAO.findAllDTO(param), param,
+                    (computer, backward) -> cursorOf(computer, param.getOrder(), backward));
+        }
+
+        if (!this.searchIndexer.isReady()) {
+            return this.computerMapper.map(this.getComputersPage(param));
+        }
+
+        this.validator.validatePageParameters(param);
+
+        // the rows are read from the index, no entity is loaded
+        Page<ComputerDTO> page = this.computerDAO.searchPageProjection(param);
+        page.setCountStrategy(CountStrategy.EXACT);
+        return page;
+    }
+
+    /**
+     * build a page without search: the total number of computers, and the keyset cursors pointing at the boundaries
+     * of the page.
+     *
+     * @param computers computers of the page, entities or dtos
+     * @param param     page parameters
+     * @param cursorOf  creates a cursor pointing at a computer, true to fetch the rows before it
+     * @param <T>       type of the computers
+     * @return page
+     */
+    private <T> Page<T> toPage(List<T> computers, PageParameters param, BiFunction<T, Boolean, PageCursor> cursorOf) {
+        Page.Builder<T> builder = new Page.Builder<T>().list(computers).params(param);
+
         // we need the total number of computers for the pagination
-        long nbComputers;
 
         // small optimization.. if we are on the first page and the number of
         // computers returned is less than the page size, then there is no need
         // to count the computers.
         if ((computers.size() < param.getSize()) && (param.getPageNumber() == 0)) {
-            nbComputers = computers.size();
+            builder.totalCount((long) computers.size()).countStrategy(CountStrategy.EXACT);
+        } else if (param.getCountStrategy() == CountStrategy.EXACT) {
+            builder.totalCount(this.computerDAO.count()).countStrategy(CountStrategy.EXACT);
         } else {
-            nbComputers = this.countComputers(param);
+            // the total is maintained in the cache and is exact.
+            builder.totalCount(this.countCache.count()).countStrategy(CountStrategy.CACHED);
+        }
+
+        // keyset cursors pointing at the boundaries of the page, used to fetch the next/previous page without an
+        // offset. (not available for the lucene search)
+        if (!computers.isEmpty()) {
+            PageCursor cursor = param.getCursor();
+
+            if ((computers.size() == param.getSize()) || ((cursor != null) && cursor.isBackward())) {
+                builder.nextCursor(cursorOf.apply(computers.get(computers.size() - 1), false));
+            }
+
+            if (param.getPageNumber() > 0) {
+                builder.previousCursor(cursorOf.apply(computers.get(0), true));
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * create a cursor pointing at a dto, same as {@link PageCursor#of(Computer, Order, boolean)}. The dtos have empty
+     * strings instead of the null values.
+     */
+    private static PageCursor cursorOf(ComputerDTO computer, Order order, boolean backward) {
+        String key;
+
+        switch (order) {
+            case INTRODUCED:
+                key = computer.getIntroduced();
+                break;
+            case DISCONTINUED:
+                key = computer.getDiscontinued();
+                break;
+            case COMPANY_NAME:
+                key = computer.getCompanyName();
+                break;
+            case NAME:
+            default:
+                key = computer.getName();
+                break;
         }
 
-        return new Page.Builder<Computer>().list(computers).totalCount(nbComputers).params(param).build();
+        key = key == null || key.isEmpty() ? null : key;
+        return new PageCursor(order, key, Long.valueOf(computer.getId()), backward);
     }
 
     @Override
@@ -132,42 +415,61 @@ public class ComputerService implements IComputerService {
 
         // try to use the cache if there is no search query.
         if (page.getSearch().isEmpty()) {
-            if (this.count == null) {
-                this.count = new AtomicLong();
-                result = this.computerDAO.count(page);
-                this.count.set(result);
-            } else {
-                result = this.count.get();
-            }
+            result = this.countCache.count();
+        } else if (page.getCountStrategy() == CountStrategy.EXACT) {
+            result = this.countSearch(page);
         } else {
-            result = this.computerDAO.count(page);
+            result = this.countSearchCached(page);
         }
 
         return result;
     }
 
     /**
-     * PostConstruct method to create the hibernate search index if needed.
-     * <p>
-     * TransactionCallbackWithoutResult is necessary in order to make sure that the context is fully instantiated.
-     *
-     * @throws Exception
+     * count the computers matching the search, using the cache of searches.
      */
-    @PostConstruct
-    public void initIt() throws Exception {
-
-        TransactionTemplate tmpl = new TransactionTemplate(txManager);
-
-        tmpl.execute(new TransactionCallbackWithoutResult() {
-            @Override
-            protected void doInTransactionWithoutResult(TransactionStatus status) {
-                try {
-                    computerDAO.buildIndex();
-                } catch (InterruptedException | IOException e) {
-                    e.printStackTrace();
-                }
-            }
-        });
+    private long countSearchCached(PageParameters page) {
+        Long result = this.searchCountCache.get(page.getSearch());
+
+        if (result == null) {
+            long version = this.searchCountCache.version();
+            result = TransactionHooks.onPrimary(this.txManager, status -> this.countSearch(page));
+            this.searchCountCache.put(page.getSearch(), result, version);
+        }
+
+        return result;
     }
 
+    /**
+     * count the computers matching the search, with the index if it is built.
+     */
+    private long countSearch(PageParameters page) {
+        return this.searchIndexer.isReady() ? this.computerDAO.count(page) : this.computerDAO.countLike(page);
+    }
+
+    @Override
+    public long countComputersByCompany(Long companyId) {
+        this.LOGGER.debug("entering countComputersByCompany()");
+        return this.countCache.count(companyId);
+    }
+
+    @Override
+    public IndexStatusDTO getIndexStatus() {
+        return this.searchIndexer.getStatus();
+    }
+
+    @Override
+    public String getComputerTag(long id) {
+        return this.dataVersions.getTag(Table.COMPUTER, id);
+    }
+
+    @Override
+    public String getComputersTag() {
+        return this.dataVersions.getTag(Table.COMPUTER, Table.COMPANY);
+    }
+
+    @Override
+    public long getComputersLastModified() {
+        return this.dataVersions.getLastModified(Table.COMPUTER, Table.COMPANY);
+    }
 }
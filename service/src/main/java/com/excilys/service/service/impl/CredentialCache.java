@@ -0,0 +1,104 @@
+package com.excilys.service.service.impl;
+
+import com.excilys.core.dto.CacheStatsDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Base64;
+
+/**
+ * LRU cache for the credentials already verified, with a short time to live.
+ * <p>
+ * checking a bcrypt hash is deliberately slow, and the stateless clients send their password with each request: a
+ * credential which matched recently is accepted without hashing it again. The key is a keyed digest of the user name
+ * and the password, so the passwords are never kept in memory, and the digest can't be computed without the key
+ * drawn at startup.
+ *
+ * @author simon
+ */
+@Component
+public class CredentialCache {
+
+    private final Hmac hmac = new Hmac(null);
+
+    private final LruCache<String, UserDetails> cache;
+
+    /**
+     * cache constructor.
+     *
+     * @param maxSize maximum number of credentials kept
+     * @param ttl     time to live of an entry, in milliseconds
+     */
+    @Autowired
+    public CredentialCache(@Value("${user.credential.cache.size:1000}") int maxSize,
+                           @Value("${user.credential.cache.ttl:60000}") long ttl) {
+        this.cache = new LruCache<>(maxSize, ttl, CredentialCache::copy);
+    }
+
+    /**
+     * get the user of a credential verified recently.
+     *
+     * @param username name given by the client
+     * @param password password given by the client
+     * @return a copy of the user, null if the credential was not verified recently
+     */
+    public UserDetails get(String username, String password) {
+        return this.cache.get(this.key(username, password));
+    }
+
+    /**
+     * get the current version of the cache, to be given back to {@link #put(String, String, UserDetails, long)}.
+     *
+     * @return version
+     */
+    public long version() {
+        return this.cache.version();
+    }
+
+    /**
+     * store a verified credential.
+     *
+     * @param username name given by the client
+     * @param password password given by the client, which matched the hash of the user
+     * @param user     user authenticated by the credential
+     * @param version  version of the cache read before verifying the credential
+     */
+    public void put(String username, String password, UserDetails user, long version) {
+        this.cache.put(this.key(username, password), user, version);
+    }
+
+    /**
+     * drop all the credentials.
+     */
+    public void invalidate() {
+        this.cache.invalidate();
+    }
+
+    /**
+     * drop all the credentials once the current transaction is committed.
+     */
+    public void invalidateAfterCommit() {
+        TransactionHooks.afterCommit(this::invalidate);
+    }
+
+    /**
+     * get the statistics of the cache since the start of the application.
+     *
+     * @return size, hits and misses
+     */
+    public CacheStatsDTO getStats() {
+        return this.cache.getStats();
+    }
+
+    private String key(String username, String password) {
+        return Base64.getEncoder().encodeToString(this.hmac.sign(username, password));
+    }
+
+    private static UserDetails copy(UserDetails user) {
+        return new User(user.getUsername(), "", user.isEnabled(), user.isAccountNonExpired(),
+                user.isCredentialsNonExpired(), user.isAccountNonLocked(), user.getAuthorities());
+    }
+}
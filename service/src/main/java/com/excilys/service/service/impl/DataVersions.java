@@ -0,0 +1,184 @@
+package com.excilys.service.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Versions of the computers and the companies, used as entity tags by the rest api.
+ * <p>
+ * each table has a counter incremented by each write, once the transaction is committed. An entity takes the value of
+ * the counter when it is updated or deleted; the writes whose ids are unknown (bulk deletes, company renames seen by
+ * the computers) move all the entities of the table to the current value. The tags contain the startup date, so that
+ * the counters starting again from 0 don't give the tags of a previous run.
+ * <p>
+ * a bounded number of entity versions is kept per table: the oldest one is dropped when the limit is reached, and the
+ * value of all the entities of the table moves up to it, so that no tag goes back to an older value.
+ *
+ * @author simon
+ */
+@Component
+public class DataVersions {
+
+    /**
+     * versioned tables.
+     */
+    public enum Table {
+        COMPUTER, COMPANY
+    }
+
+    private final long epoch = System.currentTimeMillis();
+
+    private final Version[] versions;
+
+    /**
+     * versions constructor.
+     *
+     * @param maxEntities maximum number of entity versions kept per table
+     */
+    @Autowired
+    public DataVersions(@Value("${versions.entities.max:100000}") int maxEntities) {
+        this.versions = new Version[Table.values().length];
+
+        for (int i = 0; i < this.versions.length; i++) {
+            this.versions[i] = new Version(this.epoch, maxEntities);
+        }
+    }
+
+    /**
+     * get the weak entity tag of a whole table, or of several tables when a response depends on all of them.
+     *
+     * @param tables tables read by the response
+     * @return weak entity tag
+     */
+    public String getTag(Table... tables) {
+        StringBuilder tag = new StringBuilder("W/\"").append(Long.toString(this.epoch, 36));
+
+        for (Table table : tables) {
+            tag.append('-').append(Long.toString(this.versions[table.ordinal()].current, 36));
+        }
+
+        return tag.append('"').toString();
+    }
+
+    /**
+     * get the weak entity tag of an entity.
+     *
+     * @param table table of the entity
+     * @param id    id of the entity
+     * @return weak entity tag
+     */
+    public String getTag(Table table, long id) {
+        Version version = this.versions[table.ordinal()];
+        long v;
+
+        synchronized (version) {
+            Long modified = version.entities.get(id);
+            v = Math.max(version.all, modified == null ? 0 : modified);
+        }
+
+        return "W/\"" + Long.toString(this.epoch, 36) + "-" + Long.toString(v, 36) + "\"";
+    }
+
+    /**
+     * get the date of the last write to the tables.
+     *
+     * @param tables tables read by the response
+     * @return date in milliseconds, the startup date when nothing was written since
+     */
+    public long getLastModified(Table... tables) {
+        long lastModified = this.epoch;
+
+        for (Table table : tables) {
+            lastModified = Math.max(lastModified, this.versions[table.ordinal()].modified);
+        }
+
+        return lastModified;
+    }
+
+    /**
+     * record the creation of entities once the transaction is committed: only the tag of the table changes.
+     *
+     * @param table table written
+     */
+    public void createdAfterCommit(Table table) {
+        TransactionHooks.afterCommit(() -> this.versions[table.ordinal()].increment());
+    }
+
+    /**
+     * record the update or the deletion of entities once the transaction is committed.
+     *
+     * @param table table written
+     * @param ids   ids of the entities
+     */
+    public void modifiedAfterCommit(Table table, Iterable<Long> ids) {
+        TransactionHooks.afterCommit(() -> {
+            Version version = this.versions[table.ordinal()];
+
+            synchronized (version) {
+                long v = version.increment();
+
+                for (Long id : ids) {
+                    // put again at the end, the entities stay in the order of their versions
+                    version.entities.remove(id);
+                    version.entities.put(id, v);
+                }
+            }
+        });
+    }
+
+    /**
+     * record a write to unknown entities once the transaction is committed: the tags of all the entities change.
+     *
+     * @param table table written
+     */
+    public void modifiedAllAfterCommit(Table table) {
+        TransactionHooks.afterCommit(() -> {
+            Version version = this.versions[table.ordinal()];
+
+            synchronized (version) {
+                version.all = version.increment();
+                // older than the new version of all the entities
+                version.entities.clear();
+            }
+        });
+    }
+
+    private static class Version {
+
+        /**
+         * versions of the entities written since the last write to all of them, oldest first. Guarded by the version.
+         */
+        private final Map<Long, Long> entities;
+
+        private volatile long current;
+
+        private volatile long all;
+
+        private volatile long modified;
+
+        Version(long modified, int maxEntities) {
+            this.modified = modified;
+            this.entities = new LinkedHashMap<Long, Long>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                    if (size() <= maxEntities) {
+                        return false;
+                    }
+
+                    // the entities without version get the one dropped, which is older than all the others
+                    Version.this.all = Math.max(Version.this.all, eldest.getValue());
+                    return true;
+                }
+            };
+        }
+
+        synchronized long increment() {
+            this.modified = System.currentTimeMillis();
+            return ++this.current;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.excilys.service.service.impl;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+/**
+ * HMAC-SHA256 signatures, with a key given by the configuration or drawn at startup.
+ *
+ * @author simon
+ */
+final class Hmac {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final int KEY_SIZE = 32;
+
+    private final SecretKeySpec key;
+
+    /**
+     * Hmac constructor.
+     *
+     * @param key secret key, a random key is drawn if empty: the signatures are then only valid until the next start
+     */
+    Hmac(String key) {
+        byte[] bytes;
+
+        if (key == null || key.isEmpty()) {
+            bytes = new byte[KEY_SIZE];
+            new SecureRandom().nextBytes(bytes);
+        } else {
+            bytes = key.getBytes(StandardCharsets.UTF_8);
+        }
+
+        this.key = new SecretKeySpec(bytes, ALGORITHM);
+    }
+
+    /**
+     * sign some strings, separated by a character which can't be typed so that ("ab", "c") and ("a", "bc") differ.
+     *
+     * @param parts strings to sign
+     * @return signature
+     */
+    byte[] sign(String... parts) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(this.key);
+
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) {
+                    mac.update((byte) 0);
+                }
+                mac.update(parts[i].getBytes(StandardCharsets.UTF_8));
+            }
+
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.excilys.service.service.impl;
+
+import com.excilys.core.dto.CacheStatsDTO;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * LRU cache with a time to live, shared by the user caches.
+ * <p>
+ * the values are copied in and out of the cache, so a caller can't alter a cached value. Each eviction increments
+ * the version of the cache: a value loaded before an eviction is not stored.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ * @author simon
+ */
+class LruCache<K, V> {
+
+    private final int maxSize;
+
+    private final long ttl;
+
+    private final UnaryOperator<V> copy;
+
+    private final Map<K, Entry<V>> entries;
+
+    private long version;
+
+    private long hits;
+
+    private long misses;
+
+    /**
+     * cache constructor.
+     *
+     * @param maxSize maximum number of values kept
+     * @param ttl     time to live of an entry, in milliseconds
+     * @param copy    copy of a value, applied when storing and when reading
+     */
+    LruCache(int maxSize, long ttl, UnaryOperator<V> copy) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.copy = copy;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > LruCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * get a value.
+     *
+     * @param key key of the value
+     * @return a copy of the value, null if not cached or expired
+     */
+    synchronized V get(K key) {
+        Entry<V> entry = this.entries.get(key);
+
+        if (entry != null && System.currentTimeMillis() - entry.time > this.ttl) {
+            this.entries.remove(key);
+            entry = null;
+        }
+
+        if (entry == null) {
+            this.misses++;
+            return null;
+        }
+
+        this.hits++;
+        return this.copy.apply(entry.value);
+    }
+
+    /**
+     * get the current version of the cache, to be given back to {@link #put(Object, Object, long)}.
+     *
+     * @return version
+     */
+    synchronized long version() {
+        return this.version;
+    }
+
+    /**
+     * store a value.
+     *
+     * @param key     key of the value
+     * @param value   value loaded
+     * @param version version of the cache read before loading the value
+     */
+    synchronized void put(K key, V value, long version) {
+        // an eviction happened while loading, the value may be stale
+        if (version != this.version) {
+            return;
+        }
+
+        this.entries.put(key, new Entry<>(this.copy.apply(value), System.currentTimeMillis()));
+    }
+
+    /**
+     * drop a value.
+     *
+     * @param key key of the value
+     */
+    synchronized void evict(K key) {
+        this.version++;
+        this.entries.remove(key);
+    }
+
+    /**
+     * drop all the values.
+     */
+    synchronized void invalidate() {
+        this.version++;
+        this.entries.clear();
+    }
+
+    /**
+     * get the statistics of the cache since its creation.
+     *
+     * @return size, hits and misses
+     */
+    synchronized CacheStatsDTO getStats() {
+        return new CacheStatsDTO(this.entries.size(), this.hits, this.misses);
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long time;
+
+        Entry(V value, long time) {
+            this.value = value;
+            this.time = time;
+        }
+    }
+}
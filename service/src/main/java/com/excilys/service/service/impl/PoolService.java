@@ -0,0 +1,21 @@
+package com.excilys.service.service.impl;
+
+import com.excilys.core.dto.PoolStatsDTO;
+import com.excilys.persistence.pool.PoolMetrics;
+import com.excilys.service.service.IPoolService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class PoolService implements IPoolService {
+
+    @Autowired
+    private PoolMetrics poolMetrics;
+
+    @Override
+    public List<PoolStatsDTO> getPoolStats() {
+        return this.poolMetrics.getStats();
+    }
+}
@@ -0,0 +1,210 @@
+package com.excilys.service.service.impl;
+
+import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Http client of the rest api, shared by the rest services.
+ * <p>
+ * the connections are kept alive in a pool instead of being opened for each call, the connect and read timeouts are
+ * bounded, and the asynchronous calls run on a pool of threads: many requests can be sent at once over a few
+ * connections. The responses must be read or closed, so that their connection goes back to the pool.
+ *
+ * @author simon
+ */
+@Component
+public class RestClient {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    private final Client client;
+
+    private final WebTarget target;
+
+    /**
+     * rest client constructor.
+     *
+     * @param baseUrl        url of the rest api
+     * @param user           name of the user
+     * @param password       password of the user
+     * @param connections    maximum number of connections kept open to the server
+     * @param connectTimeout timeout to open a connection, in milliseconds
+     * @param readTimeout    timeout to read a response, in milliseconds
+     * @param asyncThreads   number of threads running the asynchronous calls
+     */
+    @Autowired
+    public RestClient(@Value("${rest.client.url:http://localhost:8080/cdb/rest}") String baseUrl,
+                      @Value("${rest.client.user:user}") String user,
+                      @Value("${rest.client.password:user}") String password,
+                      @Value("${rest.client.connections:20}") int connections,
+                      @Value("${rest.client.connect.timeout:2000}") int connectTimeout,
+                      @Value("${rest.client.read.timeout:10000}") int readTimeout,
+                      @Value("${rest.client.async.threads:8}") int asyncThreads) {
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        this.connectionManager.setMaxTotal(connections);
+        // a single server
+        this.connectionManager.setDefaultMaxPerRoute(connections);
+
+        ClientConfig config = new ClientConfig()
+                .connectorProvider(new ApacheConnectorProvider())
+                .property(ApacheClientProperties.CONNECTION_MANAGER, this.connectionManager)
+                .property(ClientProperties.CONNECT_TIMEOUT, connectTimeout)
+                .property(ClientProperties.READ_TIMEOUT, readTimeout)
+                .property(ClientProperties.ASYNC_THREADPOOL_SIZE, asyncThreads);
+
+        this.client = ClientBuilder.newClient(config)
+                .register(new RestTokenFilter(baseUrl + "/token", user, password, connectTimeout, readTimeout))
+                .register(JacksonJsonProvider.class);
+        this.target = this.client.target(baseUrl);
+    }
+
+    /**
+     * get the target of a resource of the rest api.
+     *
+     * @param path path of the resource, relative to the url of the api
+     * @return target of the resource
+     */
+    public WebTarget target(String path) {
+        return this.target.path(path);
+    }
+
+    /**
+     * read the entity of a response, and give its connection back to the pool.
+     *
+     * @param response response
+     * @param type     type of the entity
+     * @param <T>      type of the entity
+     * @return entity, null if the response has none or the resource was not found
+     * @throws WebApplicationException if the server answered with another error
+     */
+    public static <T> T read(Response response, GenericType<T> type) {
+        if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+            response.close();
+
+            if (response.getStatus() == Response.Status.NOT_FOUND.getStatusCode()) {
+                return null;
+            }
+
+            throw new WebApplicationException(response);
+        }
+
+        if (!response.hasEntity()) {
+            response.close();
+            return null;
+        }
+
+        return response.readEntity(type);
+    }
+
+    /**
+     * same as {@link #read(Response, GenericType)}, for a class.
+     *
+     * @param response response
+     * @param type     class of the entity
+     * @param <T>      type of the entity
+     * @return entity, null if the response has none or the resource was not found
+     */
+    public static <T> T read(Response response, Class<T> type) {
+        return read(response, new GenericType<T>(type));
+    }
+
+    /**
+     * check the status of a response without entity, and give its connection back to the pool.
+     *
+     * @param response response
+     * @return null
+     * @throws WebApplicationException if the server answered with an error
+     */
+    public static Void check(Response response) {
+        response.close();
+
+        if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+            throw new WebApplicationException(response);
+        }
+
+        return null;
+    }
+
+    /**
+     * send an asynchronous request.
+     * <p>
+     * the function of the result runs on the thread receiving the response, it must read or close the response.
+     *
+     * @param call   sends the request with the given callback, e.g. {@code cb -> target.request().async().get(cb)}
+     * @param result builds the result from the response
+     * @param <T>    type of the result
+     * @return result, completed with the exception of the call when it fails
+     */
+    public static <T> CompletableFuture<T> async(Function<InvocationCallback<Response>, Future<Response>> call,
+                                                 Function<Response, T> result) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        call.apply(new InvocationCallback<Response>() {
+            @Override
+            public void completed(Response response) {
+                try {
+                    future.complete(result.apply(response));
+                } catch (RuntimeException e) {
+                    response.close();
+                    future.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * wait for all the results of several asynchronous requests.
+     *
+     * @param futures results of the requests
+     * @param <T>     type of the results
+     * @return results in the same order, completed exceptionally if one of the requests failed
+     */
+    public static <T> CompletableFuture<List<T>> all(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).thenApply(v -> {
+            List<T> results = new ArrayList<>(futures.size());
+
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+
+            return results;
+        });
+    }
+
+    /**
+     * close the client and its connections.
+     */
+    @PreDestroy
+    public void close() {
+        this.client.close();
+        this.connectionManager.shutdown();
+    }
+}
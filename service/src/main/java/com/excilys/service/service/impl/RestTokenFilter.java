@@ -0,0 +1,129 @@
+package com.excilys.service.service.impl;
+
+import com.excilys.core.dto.TokenDTO;
+import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Client filter authenticating the requests with a token, fetched once with the password.
+ * <p>
+ * the server checks the password with bcrypt: sending it on each request would pay this cost on each call. The token
+ * is renewed before it expires, or when the server rejects it. If no token can be fetched (server without the token
+ * endpoint), the requests fall back to http basic and a new token is asked for a minute later.
+ *
+ * @author simon
+ */
+class RestTokenFilter implements ClientRequestFilter, ClientResponseFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    /**
+     * the token is renewed when it expires in less than this delay, in milliseconds.
+     */
+    private static final long RENEW_MARGIN = 60000;
+
+    /**
+     * delay before asking for a token again after a failure, in milliseconds.
+     */
+    private static final long RETRY_DELAY = 60000;
+
+    private final Logger LOGGER = LoggerFactory.getLogger(RestTokenFilter.class);
+
+    private final WebTarget tokenTarget;
+
+    private final String basic;
+
+    private volatile TokenDTO token;
+
+    private volatile long retryAfter;
+
+    /**
+     * filter constructor.
+     *
+     * @param tokenUrl       url of the token endpoint
+     * @param user           name of the user
+     * @param password       password of the user
+     * @param connectTimeout timeout to open a connection, in milliseconds
+     * @param readTimeout    timeout to read the token, in milliseconds
+     */
+    RestTokenFilter(String tokenUrl, String user, String password, int connectTimeout, int readTimeout) {
+        this.tokenTarget = ClientBuilder.newClient()
+                .property(ClientProperties.CONNECT_TIMEOUT, connectTimeout)
+                .property(ClientProperties.READ_TIMEOUT, readTimeout)
+                .register(HttpAuthenticationFeature.basic(user, password))
+                .register(JacksonJsonProvider.class)
+                .target(tokenUrl);
+        this.basic = "Basic " + Base64.getEncoder()
+                .encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void filter(ClientRequestContext request) {
+        TokenDTO t = this.getToken();
+        request.getHeaders().putSingle(HttpHeaders.AUTHORIZATION, t == null ? this.basic : BEARER + t.getToken());
+    }
+
+    @Override
+    public void filter(ClientRequestContext request, ClientResponseContext response) {
+        Object authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        // the token was rejected (server restarted with a new key, user deleted): fetch another one next time
+        if (response.getStatus() == Response.Status.UNAUTHORIZED.getStatusCode()
+                && authorization != null && authorization.toString().startsWith(BEARER)) {
+            this.token = null;
+        }
+    }
+
+    private TokenDTO getToken() {
+        TokenDTO t = this.token;
+        long now = System.currentTimeMillis();
+
+        if ((t == null || t.getExpires() - RENEW_MARGIN < now) && now >= this.retryAfter) {
+            synchronized (this) {
+                t = this.token;
+
+                if (t == null || t.getExpires() - RENEW_MARGIN < now) {
+                    t = this.fetchToken();
+                    this.token = t;
+                }
+            }
+        }
+
+        return t;
+    }
+
+    private TokenDTO fetchToken() {
+        try {
+            Response response = this.tokenTarget.path("/").request(MediaType.APPLICATION_JSON).post(null);
+
+            if (response.getStatus() == Response.Status.CREATED.getStatusCode()) {
+                return response.readEntity(TokenDTO.class);
+            }
+
+            response.close();
+            this.LOGGER.warn("could not get a token (status {}), using http basic", response.getStatus());
+        } catch (ProcessingException e) {
+            this.LOGGER.warn("could not get a token, using http basic", e);
+        }
+
+        this.retryAfter = System.currentTimeMillis() + RETRY_DELAY;
+        return null;
+    }
+}
@@ -0,0 +1,120 @@
+package com.excilys.service.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache for the number of computers matching a search, with a time to live.
+ * <p>
+ * the whole cache is dropped each time a computer or a company is written, once the transaction is committed.
+ *
+ * @author simon
+ */
+@Component
+public class SearchCountCache {
+
+    private final int maxSize;
+
+    private final long ttl;
+
+    private final Map<String, Entry> entries;
+
+    /**
+     * version of the cache, incremented by each invalidation. A count computed before an invalidation is not stored.
+     */
+    private long version;
+
+    /**
+     * cache constructor.
+     *
+     * @param maxSize maximum number of searches kept
+     * @param ttl     time to live of an entry, in milliseconds
+     */
+    @Autowired
+    public SearchCountCache(@Value("${count.search.cache.size:1000}") int maxSize,
+                            @Value("${count.search.cache.ttl:60000}") long ttl) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > SearchCountCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * get the count of a search.
+     *
+     * @param search search string, normalized by {@link com.excilys.core.model.PageParameters}
+     * @return the count, null if not cached or expired
+     */
+    public synchronized Long get(String search) {
+        Entry entry = this.entries.get(search);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (System.currentTimeMillis() - entry.time > this.ttl) {
+            this.entries.remove(search);
+            return null;
+        }
+
+        return entry.count;
+    }
+
+    /**
+     * get the current version of the cache, to be given back to {@link #put(String, long, long)}.
+     *
+     * @return version
+     */
+    public synchronized long version() {
+        return this.version;
+    }
+
+    /**
+     * store the count of a search.
+     *
+     * @param search  search string
+     * @param count   number of computers matching the search
+     * @param version version of the cache read before counting
+     */
+    public synchronized void put(String search, long count, long version) {
+        // the cache was invalidated while counting, the count may be stale
+        if (version != this.version) {
+            return;
+        }
+
+        this.entries.put(search, new Entry(count, System.currentTimeMillis()));
+    }
+
+    /**
+     * drop all the counts.
+     */
+    public synchronized void invalidate() {
+        this.version++;
+        this.entries.clear();
+    }
+
+    /**
+     * drop all the counts once the current transaction is committed.
+     */
+    public void invalidateAfterCommit() {
+        TransactionHooks.afterCommit(this::invalidate);
+    }
+
+    private static class Entry {
+        private final long count;
+        private final long time;
+
+        Entry(long count, long time) {
+            this.count = count;
+            this.time = time;
+        }
+    }
+}
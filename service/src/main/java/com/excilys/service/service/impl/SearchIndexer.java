@@ -0,0 +1,337 @@
+package com.excilys.service.service.impl;
+
+import com.excilys.core.dto.IndexStatusDTO;
+import com.excilys.persistence.dao.ComputerDAO;
+import org.hibernate.search.batchindexing.MassIndexerProgressMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds the search index of the computers in the background at startup.
+ * <p>
+ * the application serves requests while the index is built: until it is {@link State#READY}, the searches are done
+ * with sql (see {@link #isReady()}). The date of the last indexing is kept next to the index, and moved forward while
+ * the application runs (the writes made through it are indexed as they are committed): at startup only the computers
+ * modified since then are indexed. The computers deleted outside of the application are purged from time to time, the
+ * whole index being scanned. The whole index is rebuilt only when there is no mark or when the mapping version changed.
+ *
+ * @author simon
+ */
+@Component
+public class SearchIndexer {
+
+    /**
+     * state of the search index.
+     */
+    public enum State {
+        PENDING, INDEXING, READY, FAILED
+    }
+
+    /**
+     * version of the indexed fields of {@link com.excilys.core.model.Computer}. To increment each time the mapping
+     * changes, so that the index is rebuilt instead of being caught up.
+     */
+    public static final int MAPPING_VERSION = 3;
+
+    private static final String VERSION_KEY = "version";
+
+    private static final String UPDATED_KEY = "updated";
+
+    private static final String PURGED_KEY = "purged";
+
+    private final Logger LOGGER = LoggerFactory.getLogger(SearchIndexer.class);
+
+    @Autowired
+    private ComputerDAO computerDAO;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private SearchCountCache searchCountCache;
+
+    @Value("${search.index.batch.size:100}")
+    private int batchSize;
+
+    @Value("${search.index.threads:2}")
+    private int threads;
+
+    @Value("${search.index.fetch.size:1000}")
+    private int fetchSize;
+
+    /**
+     * rebuild the whole index even if it was already built.
+     */
+    @Value("${search.index.force:false}")
+    private boolean force;
+
+    /**
+     * minimum delay between two scans of the index for the computers deleted outside of the application, in ms.
+     */
+    @Value("${search.index.purge.delay:604800000}")
+    private long purgeDelay;
+
+    /**
+     * file keeping the date of the last indexing and the version of the mapping.
+     */
+    @Value("${search.index.mark:${search.index.base:/tmp/lucene/indexes}/computer.mark}")
+    private String markFile;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "search-indexer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile State state = State.PENDING;
+
+    private final AtomicLong indexed = new AtomicLong();
+
+    private final AtomicLong total = new AtomicLong();
+
+    /**
+     * date of the last scan for the deleted computers, kept in the mark.
+     */
+    private volatile LocalDateTime purged;
+
+    /**
+     * start the indexing in the background, does not wait for it.
+     */
+    @PostConstruct
+    public void start() {
+        this.executor.submit(this::build);
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.executor.shutdownNow();
+        this.refreshMark();
+    }
+
+    /**
+     * move the mark forward once the index is built: the changes committed since were indexed as they were made.
+     */
+    @Scheduled(fixedDelayString = "${search.index.mark.delay:600000}", initialDelayString = "${search.index.mark.delay:600000}")
+    public void refreshMark() {
+        if (this.state != State.READY) {
+            return;
+        }
+
+        try {
+            this.writeMark(this.inTransaction(status -> this.computerDAO.now()));
+        } catch (RuntimeException e) {
+            this.LOGGER.warn("could not move the search index mark forward", e);
+        }
+    }
+
+    /**
+     * check if the searches can use the index.
+     *
+     * @return true if the index is built
+     */
+    public boolean isReady() {
+        return this.state == State.READY;
+    }
+
+    /**
+     * get the progress of the indexing.
+     *
+     * @return state and number of computers indexed
+     */
+    public IndexStatusDTO getStatus() {
+        return new IndexStatusDTO(this.state.name(), this.indexed.get(), this.total.get());
+    }
+
+    private void build() {
+        try {
+            this.state = State.INDEXING;
+
+            // the copies of the company names are missing on a database upgraded by hbm2ddl, filled before indexing
+            int filled = this.inTransaction(status -> this.computerDAO.fillCompanyNames());
+
+            if (filled > 0) {
+                this.LOGGER.info("company name copied to {} computers", filled);
+            }
+
+            // taken before indexing: the changes made during the indexing will be indexed again next time
+            LocalDateTime start = this.inTransaction(status -> this.computerDAO.now());
+            Properties mark = this.readMark();
+
+            if (this.force || mark == null) {
+                this.rebuild();
+                this.purged = start;
+            } else {
+                this.catchUp(LocalDateTime.parse(mark.getProperty(UPDATED_KEY)));
+                this.purged = parse(mark.getProperty(PURGED_KEY));
+
+                if (this.purged == null || this.purged.plus(this.purgeDelay, ChronoUnit.MILLIS).isBefore(start)) {
+                    this.purgeDeleted();
+                    this.purged = start;
+                }
+            }
+
+            this.writeMark(start);
+            this.ready();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.state = State.FAILED;
+        } catch (RuntimeException e) {
+            this.LOGGER.error("could not build the search index, searches will use sql", e);
+            this.state = State.FAILED;
+        }
+    }
+
+    /**
+     * index the computers modified since the last indexing.
+     *
+     * @param mark date of the last indexing
+     */
+    private void catchUp(LocalDateTime mark) {
+        this.LOGGER.info("indexing the computers modified since {}", mark);
+        long start = System.currentTimeMillis();
+
+        long count = this.inTransaction(status ->
+                this.computerDAO.indexModifiedSince(mark, this.batchSize, new Monitor()));
+
+        this.LOGGER.info("{} computers indexed in {} ms", count, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * purge the computers deleted outside of the application, the whole index is scanned.
+     */
+    private void purgeDeleted() {
+        this.LOGGER.info("purging the deleted computers from the search index");
+        long start = System.currentTimeMillis();
+
+        long count = this.inTransaction(status -> this.computerDAO.purgeDeleted(this.batchSize));
+
+        this.LOGGER.info("{} computers purged in {} ms", count, System.currentTimeMillis() - start);
+    }
+
+    private void rebuild() throws InterruptedException {
+        this.LOGGER.info("building the search index");
+        this.indexed.set(0);
+        this.total.set(0);
+
+        long start = System.currentTimeMillis();
+        this.computerDAO.buildIndex(this.batchSize, this.threads, this.fetchSize, new Monitor());
+
+        this.LOGGER.info("search index built in {} ms, {} computers", System.currentTimeMillis() - start,
+                this.indexed.get());
+    }
+
+    /**
+     * read the mark of the last indexing.
+     *
+     * @return the mark, null if there is none or if it was written for another version of the mapping
+     */
+    private Properties readMark() {
+        Properties mark = new Properties();
+
+        try (InputStream in = new FileInputStream(this.markFile)) {
+            mark.load(in);
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            this.LOGGER.warn("could not read the search index mark {}", this.markFile, e);
+            return null;
+        }
+
+        if (!String.valueOf(MAPPING_VERSION).equals(mark.getProperty(VERSION_KEY))) {
+            this.LOGGER.info("search index mapping changed, the index will be rebuilt");
+            return null;
+        }
+
+        return parse(mark.getProperty(UPDATED_KEY)) == null ? null : mark;
+    }
+
+    private static LocalDateTime parse(String date) {
+        try {
+            return date == null ? null : LocalDateTime.parse(date);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private synchronized void writeMark(LocalDateTime date) {
+        Properties mark = new Properties();
+        mark.setProperty(VERSION_KEY, String.valueOf(MAPPING_VERSION));
+        mark.setProperty(UPDATED_KEY, date.toString());
+
+        if (this.purged != null) {
+            mark.setProperty(PURGED_KEY, this.purged.toString());
+        }
+
+        File file = new File(this.markFile);
+        file.getParentFile().mkdirs();
+
+        try (OutputStream out = new FileOutputStream(file)) {
+            mark.store(out, "search index mark");
+        } catch (IOException e) {
+            // the index will be rebuilt next time
+            this.LOGGER.warn("could not write the search index mark {}", this.markFile, e);
+        }
+    }
+
+    private <T> T inTransaction(TransactionCallback<T> action) {
+        TransactionTemplate tmpl = new TransactionTemplate(this.txManager);
+        return tmpl.execute(action);
+    }
+
+    private void ready() {
+        this.state = State.READY;
+        // the counts were made with sql until now
+        this.searchCountCache.invalidate();
+    }
+
+    /**
+     * follows the progress of the mass indexer.
+     */
+    private class Monitor implements MassIndexerProgressMonitor {
+
+        @Override
+        public void documentsAdded(long increment) {
+            SearchIndexer.this.indexed.addAndGet(increment);
+        }
+
+        @Override
+        public void documentsBuilt(int number) {
+        }
+
+        @Override
+        public void entitiesLoaded(int size) {
+        }
+
+        @Override
+        public void addToTotalCount(long count) {
+            SearchIndexer.this.total.addAndGet(count);
+        }
+
+        @Override
+        public void indexingCompleted() {
+        }
+    }
+}
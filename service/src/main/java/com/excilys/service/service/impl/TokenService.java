@@ -0,0 +1,80 @@
+package com.excilys.service.service.impl;
+
+import com.excilys.core.dto.TokenDTO;
+import com.excilys.service.service.ITokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Signed tokens, so that the rest clients don't send their password on each request.
+ * <p>
+ * a token is "user.expires.signature", the user name being encoded in base64. Without a configured key, the tokens
+ * are only valid until the next start of the application.
+ *
+ * @author simon
+ */
+@Service
+public class TokenService implements ITokenService {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Hmac hmac;
+
+    private final long ttl;
+
+    /**
+     * TokenService constructor.
+     *
+     * @param key secret key of the signatures, a random key is drawn if empty
+     * @param ttl time to live of a token, in milliseconds
+     */
+    @Autowired
+    public TokenService(@Value("${user.token.key:}") String key, @Value("${user.token.ttl:3600000}") long ttl) {
+        this.hmac = new Hmac(key);
+        this.ttl = ttl;
+    }
+
+    @Override
+    public TokenDTO issue(String username) {
+        long expires = System.currentTimeMillis() + this.ttl;
+        String user = ENCODER.encodeToString(username.getBytes(StandardCharsets.UTF_8));
+        String signature = ENCODER.encodeToString(this.hmac.sign(user, String.valueOf(expires)));
+
+        return new TokenDTO(user + "." + expires + "." + signature, expires);
+    }
+
+    @Override
+    public String verify(String token) {
+        if (token == null) {
+            return null;
+        }
+
+        String[] parts = token.split("\\.");
+
+        if (parts.length != 3) {
+            return null;
+        }
+
+        try {
+            byte[] signature = DECODER.decode(parts[2]);
+
+            // constant time comparison, the time taken must not tell how much of the signature is right
+            if (!MessageDigest.isEqual(signature, this.hmac.sign(parts[0], parts[1]))
+                    || Long.parseLong(parts[1]) < System.currentTimeMillis()) {
+                return null;
+            }
+
+            return new String(DECODER.decode(parts[0]), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            // not base64 or not a number
+            return null;
+        }
+    }
+}
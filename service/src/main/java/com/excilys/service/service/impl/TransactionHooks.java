@@ -0,0 +1,54 @@
+package com.excilys.service.service.impl;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * helpers to run code around the spring transactions.
+ *
+ * @author simon
+ */
+final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    /**
+     * run the action once the current transaction is committed, or right away if there is no transaction.
+     *
+     * @param action action to run
+     */
+    static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * run a read on the primary database, in a new read write transaction.
+     * <p>
+     * the read only transactions go to the replicas, which may lag behind: a cache loaded there would keep the lag
+     * until its next reload. The current transaction is suspended, its connection may already be a replica's.
+     *
+     * @param txManager transaction manager
+     * @param read      read to run
+     * @param <T>       type of the result
+     * @return result of the read
+     */
+    static <T> T onPrimary(PlatformTransactionManager txManager, TransactionCallback<T> read) {
+        TransactionTemplate tmpl = new TransactionTemplate(txManager);
+        tmpl.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return tmpl.execute(read);
+    }
+}
@@ -8,7 +8,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.stream.Collectors;
 
@@ -18,15 +19,38 @@ public class UserAuthService implements UserDetailsService {
     @Autowired
     private IUserService userService;
 
-    @Transactional(readOnly = true)
+    @Autowired
+    private UserDetailsCache userCache;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    /**
+     * load a user, from the cache when possible: the transaction is only opened when the user has to be read from the
+     * database.
+     *
+     * @param username name of the user
+     * @return the user
+     * @throws UsernameNotFoundException if there is no user with this name
+     */
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userService.findByName(username);
+        UserDetails details = this.userCache.get(username);
+
+        if (details != null) {
+            return details;
+        }
+
+        long version = this.userCache.version();
+
+        TransactionTemplate tmpl = new TransactionTemplate(this.txManager);
+        tmpl.setReadOnly(true);
+        User user = tmpl.execute(status -> this.userService.findByName(username));
 
         if (user == null) {
             throw new UsernameNotFoundException("Username not found");
         }
 
-        return new org.springframework.security.core.userdetails.User(
+        details = new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
                 user.getPassword(),
                 true,
@@ -35,6 +59,10 @@ public class UserAuthService implements UserDetailsService {
                 true,
                 user.getRoles().stream().map(role -> new SimpleGrantedAuthority("ROLE_" + role)).collect(Collectors.toList())
         );
+
+        this.userCache.put(details, version);
+
+        return details;
     }
 
 }
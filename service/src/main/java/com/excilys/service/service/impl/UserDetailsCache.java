@@ -0,0 +1,110 @@
+package com.excilys.service.service.impl;
+
+import com.excilys.core.dto.CacheStatsDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * LRU cache for the authenticated users, with a time to live.
+ * <p>
+ * sessions are never created, so each request authenticates again: the cache saves the database query of each
+ * request. The users are copied in and out of the cache, because spring security erases the password of the
+ * {@link UserDetails} once the authentication is done.
+ *
+ * @author simon
+ */
+@Component
+public class UserDetailsCache {
+
+    private final LruCache<String, UserDetails> cache;
+
+    /**
+     * cache constructor.
+     *
+     * @param maxSize maximum number of users kept
+     * @param ttl     time to live of an entry, in milliseconds
+     */
+    @Autowired
+    public UserDetailsCache(@Value("${user.cache.size:1000}") int maxSize,
+                            @Value("${user.cache.ttl:300000}") long ttl) {
+        this.cache = new LruCache<>(maxSize, ttl, UserDetailsCache::copy);
+    }
+
+    /**
+     * get a user.
+     *
+     * @param username name of the user
+     * @return a copy of the user, null if not cached or expired
+     */
+    public UserDetails get(String username) {
+        return this.cache.get(username);
+    }
+
+    /**
+     * get the current version of the cache, to be given back to {@link #put(UserDetails, long)}.
+     *
+     * @return version
+     */
+    public long version() {
+        return this.cache.version();
+    }
+
+    /**
+     * store a user.
+     *
+     * @param user    user loaded from the database
+     * @param version version of the cache read before loading the user
+     */
+    public void put(UserDetails user, long version) {
+        this.cache.put(user.getUsername(), user, version);
+    }
+
+    /**
+     * drop a user.
+     *
+     * @param username name of the user
+     */
+    public void evict(String username) {
+        this.cache.evict(username);
+    }
+
+    /**
+     * drop all the users.
+     */
+    public void invalidate() {
+        this.cache.invalidate();
+    }
+
+    /**
+     * drop a user once the current transaction is committed.
+     *
+     * @param username name of the user
+     */
+    public void evictAfterCommit(String username) {
+        TransactionHooks.afterCommit(() -> this.evict(username));
+    }
+
+    /**
+     * drop all the users once the current transaction is committed.
+     */
+    public void invalidateAfterCommit() {
+        TransactionHooks.afterCommit(this::invalidate);
+    }
+
+    /**
+     * get the statistics of the cache since the start of the application.
+     *
+     * @return size, hits and misses
+     */
+    public CacheStatsDTO getStats() {
+        return this.cache.getStats();
+    }
+
+    private static UserDetails copy(UserDetails user) {
+        return new User(user.getUsername(), user.getPassword(), user.isEnabled(), user.isAccountNonExpired(),
+                user.isCredentialsNonExpired(), user.isAccountNonLocked(), user.getAuthorities());
+    }
+}
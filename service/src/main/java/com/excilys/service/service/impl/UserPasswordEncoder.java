@@ -0,0 +1,28 @@
+package com.excilys.service.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * bcrypt encoder of the passwords of the users.
+ * <p>
+ * declared with the services rather than with the web security, so that every application creating users stores
+ * the same hashes.
+ *
+ * @author simon
+ */
+@Component
+public class UserPasswordEncoder extends BCryptPasswordEncoder {
+
+    /**
+     * encoder constructor.
+     *
+     * @param strength log rounds of bcrypt
+     */
+    @Autowired
+    public UserPasswordEncoder(@Value("${user.password.strength:10}") int strength) {
+        super(strength);
+    }
+}
@@ -1,9 +1,11 @@
 package com.excilys.service.service.impl;
 
+import com.excilys.core.dto.CacheStatsDTO;
 import com.excilys.core.model.User;
 import com.excilys.persistence.dao.UserDAO;
 import com.excilys.service.service.IUserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionStatus;
@@ -19,6 +21,15 @@ public class UserService implements IUserService {
     @Autowired
     private UserDAO userDAO;
 
+    @Autowired
+    private UserDetailsCache userCache;
+
+    @Autowired
+    private CredentialCache credentialCache;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
     @Autowired
     protected PlatformTransactionManager txManager;
 
@@ -34,17 +45,34 @@ public class UserService implements IUserService {
 
     @Override
     public User create(User user) {
-        return this.userDAO.create(user);
+        user.setPassword(this.passwordEncoder.encode(user.getPassword()));
+
+        User created = this.userDAO.create(user);
+        this.userCache.evictAfterCommit(created.getUsername());
+        this.credentialCache.invalidateAfterCommit();
+        return created;
     }
 
     @Transactional
     @Override
     public void defaultValues() {
         this.userDAO.empty();
+        this.userCache.invalidateAfterCommit();
+        this.credentialCache.invalidateAfterCommit();
         this.create(new User("admin", "admin", "ADMIN"));
         this.create(new User("user", "user", "USER"));
     }
 
+    @Override
+    public CacheStatsDTO getCacheStats() {
+        return this.userCache.getStats();
+    }
+
+    @Override
+    public CacheStatsDTO getCredentialCacheStats() {
+        return this.credentialCache.getStats();
+    }
+
     /**
      * PostConstruct method to init the user roles.
      * <p>
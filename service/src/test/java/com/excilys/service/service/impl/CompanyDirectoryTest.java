@@ -0,0 +1,89 @@
+package com.excilys.service.service.impl;
+
+import com.excilys.binding.mapper.impl.CompanyMapper;
+import com.excilys.core.model.Company;
+import com.excilys.persistence.dao.CompanyDAO;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CompanyDirectoryTest {
+
+    @Mock
+    private CompanyDAO companyDAO;
+
+    @Mock
+    private PlatformTransactionManager txManager;
+
+    @Spy
+    private CompanyMapper companyMapper = new CompanyMapper();
+
+    @InjectMocks
+    private CompanyDirectory directory;
+
+    @Before
+    public void setUp() {
+        Mockito.when(this.companyDAO.findAll()).thenReturn(Arrays.asList(
+                new Company(1L, "RCA"), new Company(2L, "Apple Inc."), new Company(3L, "netronics")));
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testLoadedOnceAndSorted() {
+        Assert.assertEquals("Apple Inc.", this.directory.getCompanyDTOs().get(0).getName());
+        Assert.assertEquals("netronics", this.directory.getCompanyDTOs().get(1).getName());
+        Assert.assertEquals("RCA", this.directory.getCompanies().get(2).getName());
+        Assert.assertEquals("RCA", this.directory.getCompany(1L).getName());
+        Assert.assertNull(this.directory.getCompany(42L));
+
+        Mockito.verify(this.companyDAO, Mockito.times(1)).findAll();
+    }
+
+    @Test
+    public void testInvalidatedAfterCommit() {
+        this.directory.getCompanies();
+
+        TransactionSynchronizationManager.initSynchronization();
+        this.directory.invalidateAfterCommit();
+
+        // not committed yet
+        this.directory.getCompanies();
+        Mockito.verify(this.companyDAO, Mockito.times(1)).findAll();
+
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCommit();
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        this.directory.getCompanies();
+        Mockito.verify(this.companyDAO, Mockito.times(2)).findAll();
+    }
+
+    @Test
+    public void testCallersGetCopies() {
+        this.directory.getCompany(1L).setName("changed");
+        this.directory.getCompanies().get(2).setName("changed");
+
+        Assert.assertEquals("RCA", this.directory.getCompany(1L).getName());
+        Assert.assertEquals("RCA", this.directory.getCompanies().get(2).getName());
+    }
+}
@@ -0,0 +1,128 @@
+package com.excilys.service.service.impl;
+
+import com.excilys.core.model.Company;
+import com.excilys.persistence.dao.ComputerDAO;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ComputerCountCacheTest {
+
+    @Mock
+    private ComputerDAO computerDAO;
+
+    @Mock
+    private PlatformTransactionManager txManager;
+
+    @InjectMocks
+    private ComputerCountCache cache;
+
+    private Company apple = new Company(1L, "Apple Inc.");
+
+    @Before
+    public void setUp() {
+        Map<Long, Long> counts = new HashMap<>();
+        counts.put(1L, 10L);
+        counts.put(ComputerDAO.NO_COMPANY, 5L);
+
+        Mockito.when(this.computerDAO.count()).thenReturn(15L);
+        Mockito.when(this.computerDAO.countByCompany()).thenReturn(counts);
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testCountIsLoadedOnce() {
+        Assert.assertEquals(15L, this.cache.count());
+        Assert.assertEquals(15L, this.cache.count());
+        Assert.assertEquals(10L, this.cache.count(1L));
+        Assert.assertEquals(5L, this.cache.count(null));
+
+        Mockito.verify(this.computerDAO, Mockito.times(1)).count();
+        Mockito.verify(this.computerDAO, Mockito.times(1)).countByCompany();
+    }
+
+    @Test
+    public void testAdjustWithoutTransaction() {
+        this.cache.count();
+        this.cache.count(1L);
+
+        this.cache.created(this.apple);
+        this.cache.created(null);
+        this.cache.deleted(this.apple);
+        this.cache.moved(1L, 2L);
+
+        Assert.assertEquals(16L, this.cache.count());
+        Assert.assertEquals(9L, this.cache.count(1L));
+        Assert.assertEquals(1L, this.cache.count(2L));
+        Assert.assertEquals(6L, this.cache.count(null));
+    }
+
+    @Test
+    public void testAdjustOnlyAfterCommit() {
+        this.cache.count();
+
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.cache.created(this.apple);
+        this.cache.deletedCompany(1L, 10L);
+
+        // not committed yet
+        Assert.assertEquals(15L, this.cache.count());
+
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCommit();
+        }
+
+        Assert.assertEquals(6L, this.cache.count());
+    }
+
+    @Test
+    public void testRollbackDoesNotAdjust() {
+        this.cache.count();
+
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.cache.deletedMany(3L);
+
+        // rollback: the synchronizations are dropped without afterCommit
+        TransactionSynchronizationManager.clearSynchronization();
+
+        Assert.assertEquals(15L, this.cache.count());
+    }
+
+    @Test
+    public void testReconcileKeepsTheAdjustmentsMadeWhileReading() {
+        Assert.assertEquals(15L, this.cache.count());
+        Assert.assertEquals(10L, this.cache.count(1L));
+
+        // a computer is created between the count and the swap of the counts
+        Mockito.when(this.computerDAO.count()).thenAnswer(invocation -> {
+            this.cache.created(this.apple);
+            return 20L;
+        });
+
+        this.cache.reconcile();
+
+        Assert.assertEquals(21L, this.cache.count());
+        Assert.assertEquals(11L, this.cache.count(1L));
+    }
+}
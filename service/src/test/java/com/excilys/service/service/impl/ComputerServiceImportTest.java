@@ -0,0 +1,118 @@
+package com.excilys.service.service.impl;
+
+import com.excilys.binding.mapper.ICompanyDirectory;
+import com.excilys.binding.mapper.impl.ComputerMapper;
+import com.excilys.binding.validation.ValidatorUtil;
+import com.excilys.core.dto.ComputerDTO;
+import com.excilys.core.dto.ImportReportDTO;
+import com.excilys.core.model.Company;
+import com.excilys.core.model.Computer;
+import com.excilys.persistence.dao.ComputerDAO;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ComputerServiceImportTest {
+
+    @Mock
+    private ComputerDAO computerDAO;
+
+    @Mock
+    private PlatformTransactionManager txManager;
+
+    @Mock
+    private ComputerCountCache countCache;
+
+    @Mock
+    private SearchCountCache searchCountCache;
+
+    @Mock
+    private ICompanyDirectory companyDirectory;
+
+    @Mock
+    private DataVersions dataVersions;
+
+    @Spy
+    private ValidatorUtil validator = new ValidatorUtil();
+
+    @Spy
+    private ComputerMapper computerMapper = new ComputerMapper();
+
+    @InjectMocks
+    private ComputerService computerService;
+
+    /**
+     * sizes of the chunks given to the dao, the lists are cleared after each chunk.
+     */
+    private List<Integer> chunks = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(this.computerService, "batchSize", 2);
+        ReflectionTestUtils.setField(this.computerService, "chunkSize", 2);
+        ReflectionTestUtils.setField(this.computerService, "maxErrors", 10);
+
+        Mockito.when(this.companyDirectory.getCompany(1L)).thenReturn(new Company(1L, "Apple Inc."));
+        Mockito.doAnswer(invocation -> this.chunks.add(((List<?>) invocation.getArguments()[0]).size()))
+                .when(this.computerDAO).createAll(Matchers.anyListOf(Computer.class), Matchers.eq(2));
+    }
+
+    private static ComputerDTO dto(String name, String introduced, String companyId) {
+        return new ComputerDTO("42", name, introduced, "", companyId, null);
+    }
+
+    @Test
+    public void testInvalidRowsAreReported() {
+        ImportReportDTO report = this.computerService.importComputers(Arrays.asList(
+                dto("MacBook", "2006-01-10", "1"),
+                dto("", "", ""),
+                dto("Amiga", "1985-13-01", ""),
+                dto("Cray", "", "2"),
+                dto("ThinkPad", "", "")).iterator());
+
+        Assert.assertEquals(2, report.getImported());
+        Assert.assertEquals(3, report.getRejected());
+        Assert.assertEquals(2, report.getErrors().get(0).getRow());
+        Assert.assertEquals(3, report.getErrors().get(1).getRow());
+        Assert.assertEquals("Unknown company : 2", report.getErrors().get(2).getMessage());
+        Assert.assertEquals(Arrays.asList(2), this.chunks);
+    }
+
+    @Test
+    public void testInsertedByChunks() {
+        ImportReportDTO report = this.computerService.importComputers(Arrays.asList(
+                dto("a", "", ""), dto("b", "", ""), dto("c", "", ""), dto("d", "", ""), dto("e", "", "")).iterator());
+
+        Assert.assertEquals(5, report.getImported());
+        Assert.assertEquals(Arrays.asList(2, 2, 1), this.chunks);
+        Mockito.verify(this.countCache, Mockito.times(3)).createdMany(Matchers.anyListOf(Computer.class));
+    }
+
+    @Test
+    public void testFailedChunkIsRejected() {
+        Mockito.doThrow(new IllegalStateException("duplicate")).doNothing()
+                .when(this.computerDAO).createAll(Matchers.anyListOf(Computer.class), Matchers.eq(2));
+
+        ImportReportDTO report = this.computerService.importComputers(Arrays.asList(
+                dto("a", "", ""), dto("b", "", ""), dto("c", "", "")).iterator());
+
+        Assert.assertEquals(1, report.getImported());
+        Assert.assertEquals(2, report.getRejected());
+        Assert.assertEquals(1, report.getErrors().get(0).getRow());
+        Assert.assertEquals(2, report.getErrors().get(1).getRow());
+    }
+}
@@ -0,0 +1,47 @@
+package com.excilys.service.service.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+
+public class CredentialCacheTest {
+
+    private static User user(String name) {
+        return new User(name, "hash", AuthorityUtils.createAuthorityList("ROLE_USER"));
+    }
+
+    @Test
+    public void testOnlyTheVerifiedPasswordIsAccepted() {
+        CredentialCache cache = new CredentialCache(10, 60000);
+
+        cache.put("user", "user", user("user"), cache.version());
+
+        Assert.assertEquals("user", cache.get("user", "user").getUsername());
+        Assert.assertNull(cache.get("user", "wrong"));
+        Assert.assertNull(cache.get("use", "ruser"));
+    }
+
+    @Test
+    public void testHashIsNotKept() {
+        CredentialCache cache = new CredentialCache(10, 60000);
+
+        cache.put("user", "user", user("user"), cache.version());
+
+        Assert.assertEquals("", cache.get("user", "user").getPassword());
+    }
+
+    @Test
+    public void testInvalidated() {
+        CredentialCache cache = new CredentialCache(10, 60000);
+
+        long version = cache.version();
+        cache.put("user", "user", user("user"), version);
+        cache.invalidate();
+        cache.put("admin", "admin", user("admin"), version);
+
+        Assert.assertNull(cache.get("user", "user"));
+        Assert.assertNull(cache.get("admin", "admin"));
+        Assert.assertEquals(2, cache.getStats().getMisses());
+    }
+}
@@ -0,0 +1,91 @@
+package com.excilys.service.service.impl;
+
+import com.excilys.service.service.impl.DataVersions.Table;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class DataVersionsTest {
+
+    @Test
+    public void testTagsAreWeak() {
+        DataVersions versions = new DataVersions(100);
+
+        Assert.assertTrue(versions.getTag(Table.COMPUTER).startsWith("W/\""));
+        Assert.assertTrue(versions.getTag(Table.COMPUTER, 1L).startsWith("W/\""));
+    }
+
+    @Test
+    public void testCreationChangesTheTableOnly() {
+        DataVersions versions = new DataVersions(100);
+        String table = versions.getTag(Table.COMPUTER);
+        String entity = versions.getTag(Table.COMPUTER, 1L);
+
+        versions.createdAfterCommit(Table.COMPUTER);
+
+        Assert.assertNotEquals(table, versions.getTag(Table.COMPUTER));
+        Assert.assertEquals(entity, versions.getTag(Table.COMPUTER, 1L));
+    }
+
+    @Test
+    public void testModificationChangesTheEntity() {
+        DataVersions versions = new DataVersions(100);
+        String first = versions.getTag(Table.COMPUTER, 1L);
+        String second = versions.getTag(Table.COMPUTER, 2L);
+        String company = versions.getTag(Table.COMPANY);
+
+        versions.modifiedAfterCommit(Table.COMPUTER, Collections.singletonList(1L));
+
+        Assert.assertNotEquals(first, versions.getTag(Table.COMPUTER, 1L));
+        Assert.assertEquals(second, versions.getTag(Table.COMPUTER, 2L));
+        Assert.assertEquals(company, versions.getTag(Table.COMPANY));
+    }
+
+    @Test
+    public void testModifiedAllChangesEveryEntity() {
+        DataVersions versions = new DataVersions(100);
+        versions.modifiedAfterCommit(Table.COMPUTER, Arrays.asList(1L, 2L));
+
+        String first = versions.getTag(Table.COMPUTER, 1L);
+        String third = versions.getTag(Table.COMPUTER, 3L);
+
+        versions.modifiedAllAfterCommit(Table.COMPUTER);
+
+        Assert.assertNotEquals(first, versions.getTag(Table.COMPUTER, 1L));
+        Assert.assertNotEquals(third, versions.getTag(Table.COMPUTER, 3L));
+
+        // a later modification still changes the tag
+        String modified = versions.getTag(Table.COMPUTER, 1L);
+        versions.modifiedAfterCommit(Table.COMPUTER, Collections.singletonList(1L));
+        Assert.assertNotEquals(modified, versions.getTag(Table.COMPUTER, 1L));
+    }
+
+    @Test
+    public void testSeveralTables() {
+        DataVersions versions = new DataVersions(100);
+        String tag = versions.getTag(Table.COMPUTER, Table.COMPANY);
+
+        versions.createdAfterCommit(Table.COMPANY);
+
+        Assert.assertNotEquals(tag, versions.getTag(Table.COMPUTER, Table.COMPANY));
+        Assert.assertTrue(versions.getLastModified(Table.COMPUTER, Table.COMPANY)
+                >= versions.getLastModified(Table.COMPUTER));
+    }
+
+    @Test
+    public void testDroppedVersionsDontGoBack() {
+        DataVersions versions = new DataVersions(2);
+        String first = versions.getTag(Table.COMPUTER, 1L);
+        versions.modifiedAfterCommit(Table.COMPUTER, Collections.singletonList(1L));
+        String modified = versions.getTag(Table.COMPUTER, 1L);
+
+        versions.modifiedAfterCommit(Table.COMPUTER, Arrays.asList(2L, 3L));
+
+        // the version of 1 was dropped: its tag is not the one before the modification
+        Assert.assertNotEquals(first, versions.getTag(Table.COMPUTER, 1L));
+        Assert.assertEquals(modified, versions.getTag(Table.COMPUTER, 1L));
+        Assert.assertNotEquals(versions.getTag(Table.COMPUTER, 1L), versions.getTag(Table.COMPUTER, 2L));
+    }
+}
@@ -0,0 +1,24 @@
+package com.excilys.service.service.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.function.UnaryOperator;
+
+public class LruCacheTest {
+
+    @Test
+    public void testLeastRecentlyUsedIsDropped() {
+        LruCache<String, String> cache = new LruCache<>(2, 60000, UnaryOperator.identity());
+
+        cache.put("a", "a", cache.version());
+        cache.put("b", "b", cache.version());
+        cache.get("a");
+        cache.put("c", "c", cache.version());
+
+        Assert.assertEquals("a", cache.get("a"));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals("c", cache.get("c"));
+        Assert.assertEquals(2, cache.getStats().getSize());
+    }
+}
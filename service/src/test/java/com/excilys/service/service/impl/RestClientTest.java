@@ -0,0 +1,93 @@
+package com.excilys.service.service.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.core.Response;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class RestClientTest {
+
+    @Test
+    public void testReadNotFoundIsNull() {
+        Assert.assertNull(RestClient.read(Response.status(Response.Status.NOT_FOUND).build(), String.class));
+    }
+
+    @Test
+    public void testReadWithoutEntityIsNull() {
+        Assert.assertNull(RestClient.read(Response.ok().build(), String.class));
+    }
+
+    @Test(expected = WebApplicationException.class)
+    public void testReadErrorThrows() {
+        RestClient.read(Response.status(Response.Status.BAD_REQUEST).build(), String.class);
+    }
+
+    @Test
+    public void testCheckSuccess() {
+        Assert.assertNull(RestClient.check(Response.noContent().build()));
+    }
+
+    @Test(expected = WebApplicationException.class)
+    public void testCheckErrorThrows() {
+        RestClient.check(Response.serverError().build());
+    }
+
+    @Test
+    public void testAsyncCompletesWithTheResult() {
+        CompletableFuture<Integer> result = RestClient.async(cb -> {
+            cb.completed(Response.status(Response.Status.CREATED).build());
+            return null;
+        }, Response::getStatus);
+
+        Assert.assertEquals(Integer.valueOf(201), result.join());
+    }
+
+    @Test
+    public void testAsyncFailure() {
+        IllegalStateException failure = new IllegalStateException();
+        CompletableFuture<Integer> result = RestClient.async(cb -> {
+            cb.failed(failure);
+            return null;
+        }, Response::getStatus);
+
+        try {
+            result.join();
+            Assert.fail();
+        } catch (CompletionException e) {
+            Assert.assertSame(failure, e.getCause());
+        }
+    }
+
+    @Test
+    public void testAllKeepsTheOrder() {
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        CompletableFuture<List<String>> all = RestClient.all(Arrays.asList(first, second));
+
+        second.complete("b");
+        Assert.assertFalse(all.isDone());
+        first.complete("a");
+
+        Assert.assertEquals(Arrays.asList("a", "b"), all.join());
+    }
+
+    @Test
+    public void testAsyncWaitsForTheResponse() {
+        AtomicReference<InvocationCallback<Response>> callback = new AtomicReference<>();
+        CompletableFuture<Integer> result = RestClient.async(cb -> {
+            callback.set(cb);
+            return null;
+        }, Response::getStatus);
+
+        Assert.assertFalse(result.isDone());
+        callback.get().completed(Response.noContent().build());
+        Assert.assertEquals(Integer.valueOf(204), result.join());
+    }
+}
@@ -0,0 +1,52 @@
+package com.excilys.service.service.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SearchCountCacheTest {
+
+    @Test
+    public void testKeyIsTheSearch() {
+        SearchCountCache cache = new SearchCountCache(10, 60000);
+
+        cache.put("Mac", 12L, cache.version());
+
+        Assert.assertEquals(Long.valueOf(12L), cache.get("Mac"));
+        Assert.assertNull(cache.get("ibm"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        SearchCountCache cache = new SearchCountCache(2, 60000);
+
+        cache.put("a", 1L, cache.version());
+        cache.put("b", 2L, cache.version());
+        cache.get("a");
+        cache.put("c", 3L, cache.version());
+
+        Assert.assertEquals(Long.valueOf(1L), cache.get("a"));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals(Long.valueOf(3L), cache.get("c"));
+    }
+
+    @Test
+    public void testExpired() throws InterruptedException {
+        SearchCountCache cache = new SearchCountCache(10, 1);
+
+        cache.put("a", 1L, cache.version());
+        Thread.sleep(5);
+
+        Assert.assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void testCountStartedBeforeInvalidationIsDropped() {
+        SearchCountCache cache = new SearchCountCache(10, 60000);
+
+        long version = cache.version();
+        cache.invalidate();
+        cache.put("a", 1L, version);
+
+        Assert.assertNull(cache.get("a"));
+    }
+}
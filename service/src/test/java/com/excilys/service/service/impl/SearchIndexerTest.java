@@ -0,0 +1,182 @@
+package com.excilys.service.service.impl;
+
+import com.excilys.persistence.dao.ComputerDAO;
+import org.hibernate.search.batchindexing.MassIndexerProgressMonitor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Properties;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SearchIndexerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2016, 6, 1, 12, 0);
+
+    private static final LocalDateTime LAST = LocalDateTime.of(2016, 5, 1, 12, 0);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private ComputerDAO computerDAO;
+
+    @Mock
+    private PlatformTransactionManager txManager;
+
+    @Mock
+    private SearchCountCache searchCountCache;
+
+    @InjectMocks
+    private SearchIndexer indexer;
+
+    private File mark;
+
+    @Before
+    public void setUp() {
+        this.mark = new File(this.folder.getRoot(), "computer.mark");
+        ReflectionTestUtils.setField(this.indexer, "markFile", this.mark.getPath());
+        ReflectionTestUtils.setField(this.indexer, "batchSize", 100);
+
+        Mockito.when(this.computerDAO.now()).thenReturn(NOW);
+    }
+
+    @After
+    public void tearDown() {
+        this.indexer.stop();
+    }
+
+    @Test
+    public void testNoMarkRebuildsTheIndex() throws Exception {
+        this.indexer.start();
+        this.waitUntilDone();
+
+        Assert.assertTrue(this.indexer.isReady());
+        this.verifyRebuilt(1);
+        Mockito.verify(this.searchCountCache, Mockito.timeout(1000)).invalidate();
+
+        Assert.assertEquals(NOW.toString(), this.readMark().getProperty("updated"));
+    }
+
+    @Test
+    public void testMarkOnlyIndexesModifiedComputers() throws Exception {
+        this.writeMark(SearchIndexer.MAPPING_VERSION, LAST);
+
+        this.indexer.start();
+        this.waitUntilDone();
+
+        Assert.assertTrue(this.indexer.isReady());
+        Mockito.verify(this.computerDAO).indexModifiedSince(Matchers.eq(LAST), Matchers.eq(100),
+                Matchers.any(MassIndexerProgressMonitor.class));
+        this.verifyRebuilt(0);
+    }
+
+    @Test
+    public void testCatchUpPurgesTheDeletedComputers() throws Exception {
+        this.writeMark(SearchIndexer.MAPPING_VERSION, LAST);
+        Mockito.when(this.computerDAO.purgeDeleted(100)).thenReturn(2L);
+
+        this.indexer.start();
+        this.waitUntilDone();
+
+        Assert.assertTrue(this.indexer.isReady());
+        Mockito.verify(this.computerDAO).purgeDeleted(100);
+        this.verifyRebuilt(0);
+    }
+
+    @Test
+    public void testRecentPurgeIsNotRepeated() throws Exception {
+        Files.write(this.mark.toPath(), Arrays.asList("version=" + SearchIndexer.MAPPING_VERSION, "updated=" + LAST,
+                "purged=" + NOW.minusDays(1)), StandardCharsets.ISO_8859_1);
+        ReflectionTestUtils.setField(this.indexer, "purgeDelay", 7 * 24 * 3600 * 1000L);
+
+        this.indexer.start();
+        this.waitUntilDone();
+
+        Assert.assertTrue(this.indexer.isReady());
+        Mockito.verify(this.computerDAO, Mockito.never()).purgeDeleted(Matchers.anyInt());
+        Assert.assertEquals(NOW.minusDays(1).toString(), this.readMark().getProperty("purged"));
+    }
+
+    @Test
+    public void testRefreshMovesTheMarkForward() throws Exception {
+        this.indexer.start();
+        this.waitUntilDone();
+
+        LocalDateTime later = NOW.plusMinutes(10);
+        Mockito.when(this.computerDAO.now()).thenReturn(later);
+        this.indexer.refreshMark();
+
+        Assert.assertEquals(later.toString(), this.readMark().getProperty("updated"));
+    }
+
+    @Test
+    public void testMappingChangeRebuildsTheIndex() throws Exception {
+        this.writeMark(SearchIndexer.MAPPING_VERSION - 1, LAST);
+
+        this.indexer.start();
+        this.waitUntilDone();
+
+        Mockito.verify(this.computerDAO, Mockito.never()).indexModifiedSince(Matchers.any(LocalDateTime.class),
+                Matchers.anyInt(), Matchers.any(MassIndexerProgressMonitor.class));
+        this.verifyRebuilt(1);
+    }
+
+    @Test
+    public void testFailedBuildKeepsSqlSearch() throws Exception {
+        Mockito.doThrow(new IllegalStateException()).when(this.computerDAO).buildIndex(Matchers.anyInt(),
+                Matchers.anyInt(), Matchers.anyInt(), Matchers.any(MassIndexerProgressMonitor.class));
+
+        this.indexer.start();
+        this.waitUntilDone();
+
+        Assert.assertFalse(this.indexer.isReady());
+        Assert.assertEquals("FAILED", this.indexer.getStatus().getState());
+        Assert.assertFalse(this.mark.exists());
+    }
+
+    private void verifyRebuilt(int times) throws InterruptedException {
+        Mockito.verify(this.computerDAO, Mockito.times(times)).buildIndex(Matchers.anyInt(), Matchers.anyInt(),
+                Matchers.anyInt(), Matchers.any(MassIndexerProgressMonitor.class));
+    }
+
+    private void writeMark(int version, LocalDateTime updated) throws Exception {
+        Files.write(this.mark.toPath(), Arrays.asList("version=" + version, "updated=" + updated),
+                StandardCharsets.ISO_8859_1);
+    }
+
+    private Properties readMark() throws Exception {
+        Properties written = new Properties();
+        try (InputStream in = Files.newInputStream(this.mark.toPath())) {
+            written.load(in);
+        }
+        return written;
+    }
+
+    private void waitUntilDone() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            String state = this.indexer.getStatus().getState();
+            if ("READY".equals(state) || "FAILED".equals(state)) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+    }
+}
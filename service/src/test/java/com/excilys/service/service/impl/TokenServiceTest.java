@@ -0,0 +1,39 @@
+package com.excilys.service.service.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TokenServiceTest {
+
+    @Test
+    public void testVerify() {
+        TokenService service = new TokenService("", 60000);
+
+        Assert.assertEquals("user", service.verify(service.issue("user").getToken()));
+    }
+
+    @Test
+    public void testTampered() {
+        TokenService service = new TokenService("", 60000);
+        String[] parts = service.issue("user").getToken().split("\\.");
+
+        // same signature, later expiration
+        Assert.assertNull(service.verify(parts[0] + "." + (Long.parseLong(parts[1]) + 1) + "." + parts[2]));
+        Assert.assertNull(service.verify("not a token"));
+    }
+
+    @Test
+    public void testExpired() {
+        TokenService service = new TokenService("", -1);
+
+        Assert.assertNull(service.verify(service.issue("user").getToken()));
+    }
+
+    @Test
+    public void testKeySharedBetweenInstances() {
+        String token = new TokenService("secret", 60000).issue("user").getToken();
+
+        Assert.assertEquals("user", new TokenService("secret", 60000).verify(token));
+        Assert.assertNull(new TokenService("other", 60000).verify(token));
+    }
+}
@@ -0,0 +1,64 @@
+package com.excilys.service.service.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+public class UserDetailsCacheTest {
+
+    private static User user(String name) {
+        return new User(name, "secret", AuthorityUtils.createAuthorityList("ROLE_USER"));
+    }
+
+    @Test
+    public void testHitRate() {
+        UserDetailsCache cache = new UserDetailsCache(10, 60000);
+
+        Assert.assertNull(cache.get("user"));
+        cache.put(user("user"), cache.version());
+        Assert.assertNotNull(cache.get("user"));
+        Assert.assertNotNull(cache.get("user"));
+
+        Assert.assertEquals(1, cache.getStats().getSize());
+        Assert.assertEquals(2, cache.getStats().getHits());
+        Assert.assertEquals(1, cache.getStats().getMisses());
+        Assert.assertEquals(2.0 / 3, cache.getStats().getHitRate(), 0.001);
+    }
+
+    @Test
+    public void testErasedCredentialsDontReachTheCache() {
+        UserDetailsCache cache = new UserDetailsCache(10, 60000);
+        User loaded = user("user");
+
+        cache.put(loaded, cache.version());
+        loaded.eraseCredentials();
+        ((User) cache.get("user")).eraseCredentials();
+
+        Assert.assertEquals("secret", cache.get("user").getPassword());
+    }
+
+    @Test
+    public void testExpired() throws InterruptedException {
+        UserDetailsCache cache = new UserDetailsCache(10, 1);
+
+        cache.put(user("user"), cache.version());
+        Thread.sleep(5);
+
+        Assert.assertNull(cache.get("user"));
+    }
+
+    @Test
+    public void testLoadStartedBeforeEvictionIsDropped() {
+        UserDetailsCache cache = new UserDetailsCache(10, 60000);
+
+        cache.put(user("admin"), cache.version());
+        long version = cache.version();
+        cache.evict("admin");
+        cache.put(user("user"), version);
+
+        Assert.assertNull(cache.get("admin"));
+        Assert.assertNull(cache.get("user"));
+    }
+}
@@ -8,13 +8,17 @@ import com.excilys.core.model.Company;
 import com.excilys.core.model.PageParameters;
 import com.excilys.service.service.ICompanyService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("${path.rest.company}")
@@ -29,10 +33,25 @@ public class CompanyRestController {
     @Autowired
     private CompanyMapper companyMapper;
 
+    /**
+     * number of seconds the clients can keep a list of companies before checking it again.
+     */
+    @Value("${rest.company.max.age:60}")
+    private long maxAge;
+
     @RequestMapping(value = "/", method = RequestMethod.GET, produces = "application/json")
-    public ResponseEntity<List<CompanyDTO>> listAll() {
+    public ResponseEntity<List<CompanyDTO>> listAll(HttpServletRequest request) {
+        String tag = companyService.getCompaniesTag();
+        long lastModified = companyService.getCompaniesLastModified();
+        CacheControl cacheControl = CacheControl.maxAge(this.maxAge, TimeUnit.SECONDS).mustRevalidate();
+
+        if (ConditionalRequests.isNotModified(request, tag, lastModified)) {
+            return ConditionalRequests.notModified(tag, lastModified, cacheControl);
+        }
+
         PageParameters p = pageParamMapper.fromDTO(new PageParametersDTO());
-        return new ResponseEntity<>(companyMapper.toDTO(companyService.getCompanies(p)), HttpStatus.OK);
+        return ResponseEntity.ok().eTag(tag).lastModified(lastModified).cacheControl(cacheControl)
+                .body(companyMapper.toDTO(companyService.getCompanies(p)));
     }
 
     @RequestMapping(value = "/page", method = RequestMethod.POST, consumes = "application/json")
@@ -46,14 +65,25 @@ public class CompanyRestController {
     }
 
     @RequestMapping(value = "/{id:[0-9]+}", method = RequestMethod.GET, produces = "application/json")
-    public ResponseEntity<CompanyDTO> get(@PathVariable("id") long id) {
+    public ResponseEntity<CompanyDTO> get(@PathVariable("id") long id, HttpServletRequest request) {
+        String tag = companyService.getCompanyTag(id);
+
+        // "*" can't be answered before the company is known to exist
+        if (ConditionalRequests.isNotModified(request, tag, false)) {
+            return ConditionalRequests.notModified(tag, -1, CacheControl.noCache());
+        }
+
         Company company = companyService.getCompany(id);
 
         if (company == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        } else {
-            return new ResponseEntity<>(companyMapper.toDTO(company), HttpStatus.OK);
         }
+
+        if (ConditionalRequests.isNotModified(request, tag, true)) {
+            return ConditionalRequests.notModified(tag, -1, CacheControl.noCache());
+        }
+
+        return ResponseEntity.ok().eTag(tag).cacheControl(CacheControl.noCache()).body(companyMapper.toDTO(company));
     }
 
     @RequestMapping(value = "/", method = RequestMethod.POST, consumes = "application/json", produces = "application/json")
@@ -1,7 +1,6 @@
 package com.excilys.webapp.controller;
 
 
-import com.excilys.binding.mapper.impl.CompanyMapper;
 import com.excilys.binding.mapper.impl.ComputerMapper;
 import com.excilys.binding.mapper.impl.PageParametersMapper;
 import com.excilys.binding.validation.ComputerValidator;
@@ -47,9 +46,6 @@ public class ComputerController {
     @Autowired
     private PageParametersMapper pageParamMapper;
 
-    @Autowired
-    private CompanyMapper companyMapper;
-
     @Autowired
     private ICompanyService companyService;
 
@@ -72,7 +68,7 @@ public class ComputerController {
 
         if (!errors.hasErrors()) {
             PageParameters p = pageParamMapper.fromDTO(param);
-            Page<ComputerDTO> computerPage = computerMapper.map(computerService.getComputersPage(p));
+            Page<ComputerDTO> computerPage = computerService.getComputersDTOPage(p);
             model.addAttribute("page", computerPage);
         } else {
             throw new ValidatorException(errors);
@@ -99,7 +95,7 @@ public class ComputerController {
             model.addAttribute("computer", this.computerMapper.toDTO(computer));
         }
 
-        List<CompanyDTO> companies = this.companyMapper.toDTO(this.companyService.getCompanies());
+        List<CompanyDTO> companies = this.companyService.getCompanyDTOs();
         model.addAttribute("companies", companies);
 
         return "editComputer";
@@ -125,7 +121,7 @@ public class ComputerController {
             model.addAttribute("computer", computer);
             model.addAttribute("errors", errors);
 
-            List<CompanyDTO> companies = this.companyMapper.toDTO(this.companyService.getCompanies());
+            List<CompanyDTO> companies = this.companyService.getCompanyDTOs();
             model.addAttribute("companies", companies);
 
             return "editComputer";
@@ -140,7 +136,7 @@ public class ComputerController {
      */
     @RequestMapping(path = "${path.computer.add}", method = RequestMethod.GET)
     public String getAddComputer(ModelMap model) {
-        List<CompanyDTO> companies = this.companyMapper.toDTO(this.companyService.getCompanies());
+        List<CompanyDTO> companies = this.companyService.getCompanyDTOs();
         model.addAttribute("companies", companies);
         return "addComputer";
     }
@@ -3,25 +3,62 @@ package com.excilys.webapp.controller;
 import com.excilys.binding.mapper.impl.ComputerMapper;
 import com.excilys.binding.mapper.impl.PageParametersMapper;
 import com.excilys.binding.validation.ComputerValidator;
+import com.excilys.binding.validation.PageParametersValidator;
 import com.excilys.core.dto.ComputerDTO;
+import com.excilys.core.dto.ImportReportDTO;
+import com.excilys.core.dto.IndexStatusDTO;
 import com.excilys.core.dto.PageParametersDTO;
 import com.excilys.core.model.Computer;
 import com.excilys.core.model.Page;
 import com.excilys.core.model.PageParameters;
 import com.excilys.service.service.IComputerService;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequestMapping("${path.rest.computer}")
 public class ComputerRestController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String PREVIOUS_CURSOR_HEADER = "X-Previous-Cursor";
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    /**
+     * reads a json array or json values separated by new lines, one computer at a time.
+     */
+    private static final ObjectReader COMPUTER_READER = MAPPER.readerFor(ComputerDTO.class);
+
+    private static final ObjectWriter COMPUTER_WRITER = MAPPER.writerFor(ComputerDTO.class);
+
+    private static final String CSV_HEADER = "id,name,introduced,discontinued,companyId,companyName";
+
     @Autowired
     private IComputerService computerService;
 
@@ -34,32 +71,178 @@ public class ComputerRestController {
     @Autowired
     private ComputerValidator computerValidator;
 
+    @Autowired
+    private PageParametersValidator paramsValidator;
+
     @RequestMapping(value = "/", method = RequestMethod.GET, produces = "application/json")
-    public ResponseEntity<List<ComputerDTO>> listAll() {
+    public ResponseEntity<List<ComputerDTO>> listAll(HttpServletRequest request) {
+        // the version is read before the computers, so that a write in between can only make the tag older
+        String tag = computerService.getComputersTag();
+        long lastModified = computerService.getComputersLastModified();
+
+        if (ConditionalRequests.isNotModified(request, tag, lastModified)) {
+            return ConditionalRequests.notModified(tag, lastModified, CacheControl.noCache());
+        }
+
         PageParameters p = pageParamMapper.fromDTO(new PageParametersDTO());
-        Page<ComputerDTO> computerPage = computerMapper.map(computerService.getComputersPage(p));
-        return new ResponseEntity<>(computerPage.getList(), HttpStatus.OK);
+        Page<ComputerDTO> computerPage = computerService.getComputersDTOPage(p);
+        return ResponseEntity.ok().eTag(tag).lastModified(lastModified).cacheControl(CacheControl.noCache())
+                .body(computerPage.getList());
     }
 
     @RequestMapping(value = "/page", method = RequestMethod.POST, consumes = "application/json")
     public ResponseEntity<List<ComputerDTO>> listAll(@Valid @RequestBody PageParametersDTO params, BindingResult errors) {
+        paramsValidator.validate(params, errors);
+
         if (!errors.hasErrors()) {
             PageParameters p = pageParamMapper.fromDTO(params);
-            Page<ComputerDTO> computerPage = computerMapper.map(computerService.getComputersPage(p));
-            return new ResponseEntity<>(computerPage.getList(), HttpStatus.OK);
+            Page<ComputerDTO> computerPage = computerService.getComputersDTOPage(p);
+            return new ResponseEntity<>(computerPage.getList(), this.getCursorHeaders(computerPage), HttpStatus.OK);
         } else {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     }
 
+    /**
+     * expose the keyset cursors of the page, to be sent back in the "cursor" field of the page parameters.
+     *
+     * @param page page of computers
+     * @return headers containing the cursors
+     */
+    private HttpHeaders getCursorHeaders(Page<ComputerDTO> page) {
+        HttpHeaders headers = new HttpHeaders();
+
+        if (page.getNextCursor() != null) {
+            headers.add(NEXT_CURSOR_HEADER, page.getNextCursor().encode());
+        }
+
+        if (page.getPreviousCursor() != null) {
+            headers.add(PREVIOUS_CURSOR_HEADER, page.getPreviousCursor().encode());
+        }
+
+        return headers;
+    }
+
+    /**
+     * export all the computers matching the search, in the order of the parameters, as csv or ndjson. The rows are
+     * written as they are read from the database, so the memory used doesn't depend on the number of computers.
+     *
+     * @param params   search, order and direction (the page number and size are ignored)
+     * @param errors   BindingResult containing validation errors
+     * @param format   "csv" or "ndjson"
+     * @param response response the rows are written to
+     * @throws IOException if the response can't be written
+     */
+    @RequestMapping(value = "/export", method = RequestMethod.GET)
+    public void export(@Valid PageParametersDTO params, BindingResult errors,
+                       @RequestParam(value = "format", defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equals(format);
+
+        if (!csv && !"ndjson".equals(format)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "format must be csv or ndjson");
+            return;
+        }
+
+        paramsValidator.validate(params, errors);
+
+        if (errors.hasErrors()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+
+        PageParameters p = pageParamMapper.fromDTO(params);
+
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : NDJSON + ";charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=computers." + format);
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+
+        if (csv) {
+            out.write(CSV_HEADER);
+            out.write('\n');
+        }
+
+        try {
+            computerService.exportComputers(p, computer -> {
+                try {
+                    out.write(csv ? toCsv(computer) : COMPUTER_WRITER.writeValueAsString(computer));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // the client went away
+            throw e.getCause();
+        }
+
+        out.flush();
+    }
+
+    private static String toCsv(ComputerDTO computer) {
+        return String.join(",", csvField(computer.getId()), csvField(computer.getName()),
+                csvField(computer.getIntroduced()), csvField(computer.getDiscontinued()),
+                csvField(computer.getCompanyId()), csvField(computer.getCompanyName()));
+    }
+
+    /**
+     * quote a csv field if needed (rfc 4180).
+     */
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * count the computers matching the search.
+     *
+     * @param params search (the other parameters are ignored)
+     * @param errors BindingResult containing validation errors
+     * @return number of computers
+     */
+    @RequestMapping(value = "/count", method = RequestMethod.GET, produces = "application/json")
+    public ResponseEntity<Long> count(@Valid PageParametersDTO params, BindingResult errors) {
+        paramsValidator.validate(params, errors);
+
+        if (errors.hasErrors()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        return new ResponseEntity<>(computerService.countComputers(pageParamMapper.fromDTO(params)), HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "/index", method = RequestMethod.GET, produces = "application/json")
+    public ResponseEntity<IndexStatusDTO> indexStatus() {
+        return new ResponseEntity<>(computerService.getIndexStatus(), HttpStatus.OK);
+    }
+
     @RequestMapping(value = "/{id:[0-9]+}", method = RequestMethod.GET, produces = "application/json")
-    public ResponseEntity<ComputerDTO> get(@PathVariable("id") long id) {
+    public ResponseEntity<ComputerDTO> get(@PathVariable("id") long id, HttpServletRequest request) {
+        String tag = computerService.getComputerTag(id);
+
+        // "*" can't be answered before the computer is known to exist
+        if (ConditionalRequests.isNotModified(request, tag, false)) {
+            return ConditionalRequests.notModified(tag, -1, CacheControl.noCache());
+        }
+
         Computer computer = computerService.getComputer(id);
         if (computer == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        } else {
-            return new ResponseEntity<>(computerMapper.toDTO(computer), HttpStatus.OK);
         }
+
+        if (ConditionalRequests.isNotModified(request, tag, true)) {
+            return ConditionalRequests.notModified(tag, -1, CacheControl.noCache());
+        }
+
+        return ResponseEntity.ok().eTag(tag).cacheControl(CacheControl.noCache()).body(computerMapper.toDTO(computer));
     }
 
     @RequestMapping(value = "/", method = RequestMethod.POST, consumes = "application/json", produces = "application/json")
@@ -77,6 +260,21 @@ public class ComputerRestController {
         }
     }
 
+    /**
+     * import many computers, sent as a json array or as ndjson. The body is read as the computers are inserted, so its
+     * size is not limited by the memory.
+     *
+     * @param body body of the request
+     * @return number of computers imported and rejected rows
+     * @throws IOException if the body can't be read
+     */
+    @RequestMapping(value = "/batch", method = RequestMethod.POST, consumes = {"application/json", NDJSON}, produces = "application/json")
+    public ResponseEntity<ImportReportDTO> importBatch(InputStream body) throws IOException {
+        try (MappingIterator<ComputerDTO> computers = COMPUTER_READER.readValues(body)) {
+            return new ResponseEntity<>(computerService.importComputers(computers), HttpStatus.OK);
+        }
+    }
+
     @RequestMapping(value = "/{id:[0-9]+}", method = RequestMethod.PUT, consumes = "application/json", produces = "application/json")
     public ResponseEntity<ComputerDTO> update(@PathVariable("id") long id, @Valid @RequestBody ComputerDTO computer, BindingResult errors) {
 
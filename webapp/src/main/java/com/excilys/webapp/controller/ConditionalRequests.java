@@ -0,0 +1,115 @@
+package com.excilys.webapp.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * helpers for the conditional GET requests of the rest api.
+ *
+ * @author simon
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * check whether the client already has the current version of a response, before it is computed.
+     * <p>
+     * the entity tags are compared with the weak comparison of the http specification. If-Modified-Since is only used
+     * when the request has no If-None-Match. "If-None-Match: *" matches any current version, so it is only honored
+     * once the resource is known to exist: a missing resource must still get its 404.
+     *
+     * @param request      request
+     * @param tag          current entity tag of the response
+     * @param lastModified date of the last modification of the response in milliseconds, -1 if unknown
+     * @param exists       whether the resource is known to exist
+     * @return true to answer 304 Not Modified
+     */
+    static boolean isNotModified(HttpServletRequest request, String tag, long lastModified, boolean exists) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+
+        if (ifNoneMatch != null) {
+            String opaqueTag = opaque(tag);
+
+            for (String candidate : ifNoneMatch.split(",")) {
+                candidate = candidate.trim();
+
+                if ("*".equals(candidate) ? exists : opaque(candidate).equals(opaqueTag)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        if (lastModified >= 0) {
+            long ifModifiedSince;
+
+            try {
+                ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+
+            // the http dates have no milliseconds
+            return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+        }
+
+        return false;
+    }
+
+    /**
+     * same as {@link #isNotModified(HttpServletRequest, String, long, boolean)}, for a list, which always exists.
+     *
+     * @param request      request
+     * @param tag          current entity tag of the response
+     * @param lastModified date of the last modification of the response in milliseconds, -1 if unknown
+     * @return true to answer 304 Not Modified
+     */
+    static boolean isNotModified(HttpServletRequest request, String tag, long lastModified) {
+        return isNotModified(request, tag, lastModified, true);
+    }
+
+    /**
+     * same as {@link #isNotModified(HttpServletRequest, String, long, boolean)}, without date.
+     *
+     * @param request request
+     * @param tag     current entity tag of the response
+     * @param exists  whether the resource is known to exist
+     * @return true to answer 304 Not Modified
+     */
+    static boolean isNotModified(HttpServletRequest request, String tag, boolean exists) {
+        return isNotModified(request, tag, -1, exists);
+    }
+
+    /**
+     * build the 304 Not Modified answer, with the validators and the cache control the full response would have.
+     *
+     * @param tag          current entity tag of the response
+     * @param lastModified date of the last modification of the response in milliseconds, -1 if unknown
+     * @param cacheControl cache control of the full response
+     * @param <T>          type of the body of the full response
+     * @return response without body
+     */
+    static <T> ResponseEntity<T> notModified(String tag, long lastModified, CacheControl cacheControl) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(tag);
+
+        if (lastModified >= 0) {
+            headers.setLastModified(lastModified);
+        }
+
+        headers.setCacheControl(cacheControl.getHeaderValue());
+
+        return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
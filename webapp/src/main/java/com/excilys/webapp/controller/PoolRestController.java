@@ -0,0 +1,25 @@
+package com.excilys.webapp.controller;
+
+import com.excilys.core.dto.PoolStatsDTO;
+import com.excilys.service.service.IPoolService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("${path.rest.pool}")
+public class PoolRestController {
+
+    @Autowired
+    private IPoolService poolService;
+
+    @RequestMapping(value = "/", method = RequestMethod.GET, produces = "application/json")
+    public ResponseEntity<List<PoolStatsDTO>> poolStats() {
+        return new ResponseEntity<>(poolService.getPoolStats(), HttpStatus.OK);
+    }
+}
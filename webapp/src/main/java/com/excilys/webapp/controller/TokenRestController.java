@@ -0,0 +1,39 @@
+package com.excilys.webapp.controller;
+
+import com.excilys.core.dto.TokenDTO;
+import com.excilys.service.service.ITokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
+
+@RestController
+@RequestMapping("${path.rest.token}")
+public class TokenRestController {
+
+    @Autowired
+    private ITokenService tokenService;
+
+    /**
+     * issue a token for the authenticated user, to be sent in a "Bearer" authorization header instead of the password.
+     * <p>
+     * only a user authenticated by its password gets a token: a token can't be renewed with itself, so a stolen token
+     * expires.
+     *
+     * @param principal authenticated user
+     * @return the token and its expiration date, 403 if the user was authenticated by a token
+     */
+    @RequestMapping(value = "/", method = RequestMethod.POST, produces = "application/json")
+    public ResponseEntity<TokenDTO> issue(Principal principal) {
+        if (principal instanceof PreAuthenticatedAuthenticationToken) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+
+        return new ResponseEntity<>(tokenService.issue(principal.getName()), HttpStatus.CREATED);
+    }
+}
@@ -0,0 +1,28 @@
+package com.excilys.webapp.controller;
+
+import com.excilys.core.dto.CacheStatsDTO;
+import com.excilys.service.service.IUserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("${path.rest.user}")
+public class UserRestController {
+
+    @Autowired
+    private IUserService userService;
+
+    @RequestMapping(value = "/cache", method = RequestMethod.GET, produces = "application/json")
+    public ResponseEntity<CacheStatsDTO> cacheStats() {
+        return new ResponseEntity<>(userService.getCacheStats(), HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "/cache/credentials", method = RequestMethod.GET, produces = "application/json")
+    public ResponseEntity<CacheStatsDTO> credentialCacheStats() {
+        return new ResponseEntity<>(userService.getCredentialCacheStats(), HttpStatus.OK);
+    }
+}
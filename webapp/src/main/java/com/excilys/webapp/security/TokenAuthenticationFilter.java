@@ -0,0 +1,69 @@
+package com.excilys.webapp.security;
+
+import com.excilys.service.service.ITokenService;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Authenticate the requests carrying a "Bearer" token issued by {@link ITokenService}.
+ * <p>
+ * the signature of the token is checked instead of the password, and the user is read through the user details
+ * service (and its cache) so that a deleted user can't keep using a token. Requests without a valid token go on to
+ * the http basic authentication.
+ * <p>
+ * the user is given a {@link PreAuthenticatedAuthenticationToken}, so that the controllers can tell a token from a
+ * password.
+ *
+ * @author simon
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "Bearer ";
+
+    private final ITokenService tokenService;
+
+    private final UserDetailsService userDetailsService;
+
+    /**
+     * filter constructor.
+     *
+     * @param tokenService       service checking the tokens
+     * @param userDetailsService service loading the users
+     */
+    public TokenAuthenticationFilter(ITokenService tokenService, UserDetailsService userDetailsService) {
+        this.tokenService = tokenService;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader("Authorization");
+
+        if (header != null && header.startsWith(PREFIX)) {
+            String username = this.tokenService.verify(header.substring(PREFIX.length()).trim());
+
+            if (username != null) {
+                try {
+                    UserDetails user = this.userDetailsService.loadUserByUsername(username);
+                    SecurityContextHolder.getContext().setAuthentication(
+                            new PreAuthenticatedAuthenticationToken(user, null, user.getAuthorities()));
+                } catch (UsernameNotFoundException e) {
+                    this.logger.debug("token of an unknown user " + username);
+                }
+            }
+        }
+
+        chain.doFilter(request, response);
+    }
+}
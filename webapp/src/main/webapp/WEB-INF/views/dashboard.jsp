@@ -92,7 +92,9 @@
 <footer class="navbar-fixed-bottom">
     <div class="container text-center">
         <mylib2:pagination2 current="${page.params.pageNumber}" count="${page.numberOfPages()}"
-            psize="${page.params.size}" />
+            psize="${page.params.size}"
+            next="${empty page.nextCursor ? '' : page.nextCursor.encode()}"
+            previous="${empty page.previousCursor ? '' : page.previousCursor.encode()}"/>
     </div>
 </footer>
 </body>